@@ -68,13 +68,22 @@ export async function listWeights(pool, userSub, limit = 100, offset = 0) {
     `SELECT id, value, recorded_at
        FROM weights
       WHERE user_sub = ?
-      ORDER BY recorded_at DESC
+      ORDER BY recorded_at DESC, id DESC
       LIMIT ${lim} OFFSET ${off}`,
     [userSub]
   );
   return rows;
 }
 
+/// Fetch one weight row owned by the user (or null)
+export async function getWeight(pool, id, userSub) {
+  const [rows] = await pool.execute(
+    `SELECT id, value, recorded_at FROM weights WHERE id = ? AND user_sub = ?`,
+    [id, userSub]
+  );
+  return rows[0] || null;
+}
+
 /// Delete one weight row if it belongs to the user; returns affected row count
 export async function deleteWeight(pool, id, userSub) {
     const [result] = await pool.execute(
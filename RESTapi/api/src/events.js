@@ -0,0 +1,76 @@
+/// Per-user change notifications over Server-Sent Events.
+/// Each user gets a small replay buffer so a client reconnecting with Last-Event-ID
+/// receives only what it missed; if it is too far behind (or the API restarted)
+/// it is told to "resync" with one full fetch instead.
+
+const BOOT = Date.now().toString(36);  // event ids are "<boot>-<n>", n counted per user
+const BUFFER_SIZE = 200;               // events kept per user for replay
+const HEARTBEAT_MS = 25000;            // keeps proxies/clients from idling out
+
+const streams = new Map();  // user_sub -> Set<res>
+const history = new Map();  // user_sub -> { nextSeq, events: [{ seq, frame }] }
+
+/// GET /events handler body: hold the response open and stream the caller's changes
+export function subscribe(userSub, req, res) {
+  res.status(200).set({
+    "Content-Type": "text/event-stream",
+    "Cache-Control": "no-cache",
+    "Connection": "keep-alive",
+    "X-Accel-Buffering": "no",
+  });
+  res.flushHeaders();
+
+  // Replay what the client missed, or ask it to resync
+  const lastId = req.get("Last-Event-ID");
+  if (lastId) {
+    const missed = eventsSince(userSub, lastId);
+    if (missed === null) {
+      res.write(frame("resync", {}, null));
+    } else {
+      for (const f of missed) res.write(f);
+    }
+  }
+
+  let set = streams.get(userSub);
+  if (!set) streams.set(userSub, (set = new Set()));
+  set.add(res);
+
+  const ping = setInterval(() => res.write(": ping\n\n"), HEARTBEAT_MS);
+  req.on("close", () => {
+    clearInterval(ping);
+    set.delete(res);
+    if (set.size === 0) streams.delete(userSub);
+  });
+}
+
+/// Send one change to every open stream of a user (and keep it for replay)
+export function publish(userSub, type, data) {
+  let h = history.get(userSub);
+  if (!h) history.set(userSub, (h = { nextSeq: 1, events: [] }));
+  // Per-user numbering: a gap before the oldest buffered event really means dropped events
+  const seq = h.nextSeq++;
+  const f = frame(type, data, `${BOOT}-${seq}`);
+
+  h.events.push({ seq, frame: f });
+  if (h.events.length > BUFFER_SIZE) h.events.shift();
+
+  for (const res of streams.get(userSub) ?? []) res.write(f);
+}
+
+/// Frames after lastId, or null if they can't be reconstructed
+function eventsSince(userSub, lastId) {
+  const [boot, n] = String(lastId).split("-");
+  const seq = Number(n);
+  if (boot !== BOOT || !Number.isInteger(seq)) return null;
+
+  const h = history.get(userSub) ?? { nextSeq: 1, events: [] };
+  // Anything between lastId and the oldest buffered event has been dropped;
+  // an id past the newest one wasn't issued to this user
+  if (seq >= h.nextSeq) return null;
+  if (h.events.length > 0 && h.events[0].seq > seq + 1) return null;
+  return h.events.filter(e => e.seq > seq).map(e => e.frame);
+}
+
+function frame(type, data, id) {
+  return (id ? `id: ${id}\n` : "") + `event: ${type}\ndata: ${JSON.stringify(data)}\n\n`;
+}
@@ -3,6 +3,7 @@ import cors from "cors";
 import { requireAuth } from "./auth.js";
 import { 
   deleteWeight,
+  getWeight,
   insertWeight,
   updateWeight,
   listWeights,
@@ -12,6 +13,8 @@ import {
   makePool,
   migrate
 } from "./db.js";
+import { WEIGHTS_BIN, encodeWeights } from "./wire.js";
+import { subscribe, publish } from "./events.js";
 
 const app = express();
 app.use(express.json());
@@ -37,6 +40,23 @@ app.post("/test", requireAuth, (req, res) => {
   });
 });
 
+/// Publish a change after the response is sent; a failed lookup only skips the event
+async function notify(userSub, type, load) {
+  try {
+    const data = await load();
+    if (data) publish(userSub, type, data);
+  } catch (err) {
+    console.error("Notify failed:", err);
+  }
+}
+
+/// GET /events - Server-Sent Events stream of the caller’s weight/goal changes
+/// Events: weight.created, weight.updated (row), weight.deleted ({ id }),
+/// goal.updated ({ goal }), goal.deleted, resync (client should refetch everything)
+app.get("/events", requireAuth, (req, res) => {
+  subscribe(req.user.sub, req, res);
+});
+
 /// POST /weights - create a weight row
 /// value is required and must be a finite number
 /// recorded_at is optional and may be provided as "recorded_at" or "at"
@@ -64,6 +84,9 @@ app.post("/weights", requireAuth, async (req, res) => {
     }
 
     res.json({ ok: true, id });
+
+    // Notify the caller’s other devices
+    notify(req.user.sub, "weight.created", () => getWeight(pool, id, req.user.sub));
   } catch (err) {
     console.error("Insert failed:", err);
     res.status(500).json({ ok: false, error: "DB insert failed" });
@@ -81,11 +104,13 @@ app.delete("/weights/:id", requireAuth, async (req, res) => {
   // Attempt delete scoped to the caller’s subject
   const affectedRows = await deleteWeight(pool, id, req.user.sub);
   res.json({ ok: true, deleted: affectedRows });
+  if (affectedRows > 0) publish(req.user.sub, "weight.deleted", { id });
 });
 
 /// GET /weights - paginated list of the caller’s weights
 /// limit caps the page size
 /// offset skips that many newest records
+/// Accept: application/vnd.weighttracker.weights-v1 returns the compact binary page (see wire.js)
 app.get("/weights", requireAuth, async (req, res) => {
   try {
     // Parse paging with safe bounds
@@ -94,6 +119,12 @@ app.get("/weights", requireAuth, async (req, res) => {
 
     // Query and return items in newest-first order
     const items = await listWeights(pool, req.user.sub, limit, offset);
+
+    // Content negotiation: JSON unless the client prefers the binary page
+    res.vary("Accept");
+    if (req.accepts(["application/json", WEIGHTS_BIN]) === WEIGHTS_BIN) {
+      return res.type(WEIGHTS_BIN).send(encodeWeights(items));
+    }
     res.json({ ok: true, items });
   } catch (err) {
     console.error("Query failed:", err);
@@ -137,6 +168,10 @@ app.put("/weights/:id", requireAuth, async (req, res) => {
     // updated is the number of rows modified (0 or 1 in this case)
     const updated = await updateWeight(pool, id, req.user.sub, newValue, recordedAtRaw);
     res.json({ ok: true, updated }); // updated = 0 (no match) or 1 (updated)
+
+    if (updated > 0) {
+      notify(req.user.sub, "weight.updated", () => getWeight(pool, id, req.user.sub));
+    }
   } catch (e) {
     // Map date conversion error to a 400
     if (/Invalid date/.test(String(e?.message))) {
@@ -166,6 +201,7 @@ app.put("/goal", requireAuth, async (req, res) => {
   try {
     await upsertGoal(pool, req.user.sub, value, at);
     res.json({ ok: true });
+    notify(req.user.sub, "goal.updated", async () => ({ goal: await getGoal(pool, req.user.sub) }));
   } catch (e) {
     if (/Invalid date/.test(String(e?.message))) {
       return res.status(400).json({ ok:false, error:"Invalid at timestamp" });
@@ -178,6 +214,7 @@ app.put("/goal", requireAuth, async (req, res) => {
 app.delete("/goal", requireAuth, async (req, res) => {
   const n = await deleteGoal(pool, req.user.sub);
   res.json({ ok: true, deleted: n });
+  if (n > 0) publish(req.user.sub, "goal.deleted", {});
 });
 
 // Bootstrap: connect + migrate, then listen
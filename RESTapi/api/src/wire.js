@@ -0,0 +1,44 @@
+/// Compact binary representation of a weights page.
+/// Served by GET /weights when the client asks for it via Accept; JSON stays the default.
+/// Mirror of WeightTracker's net/WeightsCodec.java (keep the two in sync).
+///
+/// Layout (unsigned LEB128 varints; deltas are zig-zag encoded):
+///   version   1 byte (= 1)
+///   count     varint
+///   per row:  Δid, Δepoch-seconds, Δ(value × 100) vs the previous row (first row vs 0)
+export const WEIGHTS_BIN = "application/vnd.weighttracker.weights-v1";
+
+const VERSION = 1;
+
+/// Encode rows ({ id, value, recorded_at }) in the order given
+export function encodeWeights(rows) {
+  const out = [VERSION];
+  writeVarint(out, rows.length);
+
+  let prevId = 0, prevSec = 0, prevCenti = 0;
+  for (const r of rows) {
+    const id = Number(r.id);
+    const sec = Math.floor(new Date(r.recorded_at).getTime() / 1000);
+    const centi = Math.round(Number(r.value) * 100); // DECIMAL(6,2) is exact in centi-units
+
+    writeVarint(out, zigzag(id - prevId));
+    writeVarint(out, zigzag(sec - prevSec));
+    writeVarint(out, zigzag(centi - prevCenti));
+    prevId = id; prevSec = sec; prevCenti = centi;
+  }
+  return Buffer.from(out);
+}
+
+/// Map signed to unsigned so small negative deltas stay small (arithmetic: values exceed 32 bits)
+function zigzag(n) {
+  return n >= 0 ? n * 2 : -n * 2 - 1;
+}
+
+/// Unsigned LEB128
+function writeVarint(out, n) {
+  while (n >= 0x80) {
+    out.push((n % 0x80) | 0x80);
+    n = Math.floor(n / 0x80);
+  }
+  out.push(n);
+}
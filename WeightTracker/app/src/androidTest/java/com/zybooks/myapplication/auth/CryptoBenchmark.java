@@ -0,0 +1,130 @@
+package com.zybooks.myapplication.auth;
+
+import android.content.Context;
+import android.util.Base64;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.util.Arrays;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Micro-benchmark: cached key handle + per-thread Cipher (Crypto) vs. the old
+ * per-call KeyStore load + Cipher.getInstance. Needs a device (AndroidKeyStore).
+ * Results go to logcat, tag "CryptoBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class CryptoBenchmark {
+    private static final String TAG = "CryptoBenchmark";
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 200;
+
+    // Roughly the size of a serialized AuthState
+    private static final String PAYLOAD = repeat('x', 3000);
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        Context ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        Keys.ensure(ctx);
+    }
+
+    @Test
+    public void encrypt_cachedVsUncached() throws Exception {
+        long uncached = medianNanos(() -> uncachedEncrypt(PAYLOAD));
+        long cached = medianNanos(() -> Crypto.encrypt(PAYLOAD));
+        report("encrypt", uncached, cached);
+    }
+
+    @Test
+    public void decrypt_cachedVsUncached() throws Exception {
+        String blob = Crypto.encrypt(PAYLOAD);
+        assertEquals(PAYLOAD, uncachedDecrypt(blob));
+        assertEquals(PAYLOAD, Crypto.decrypt(blob));
+
+        long uncached = medianNanos(() -> uncachedDecrypt(blob));
+        long cached = medianNanos(() -> Crypto.decrypt(blob));
+        report("decrypt", uncached, cached);
+    }
+
+    @Test
+    public void keysEnsure_repeatCalls() throws Exception {
+        Context ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        long uncached = medianNanos(() -> {
+            KeyStore ks = KeyStore.getInstance("AndroidKeyStore");
+            ks.load(null);
+            return ks.containsAlias(Keys.ALIAS);
+        });
+        long cached = medianNanos(() -> { Keys.ensure(ctx); return null; });
+        report("Keys.ensure", uncached, cached);
+    }
+
+    // -------------------------
+    // Old code path, kept here for comparison
+    // -------------------------
+
+    private static SecretKey loadKey() throws Exception {
+        KeyStore ks = KeyStore.getInstance("AndroidKeyStore");
+        ks.load(null);
+        return (SecretKey) ks.getKey(Keys.ALIAS, null);
+    }
+
+    private static String uncachedEncrypt(String plain) throws Exception {
+        Cipher c = Cipher.getInstance("AES/GCM/NoPadding");
+        c.init(Cipher.ENCRYPT_MODE, loadKey());
+        byte[] iv = c.getIV();
+        byte[] ct = c.doFinal(plain.getBytes(StandardCharsets.UTF_8));
+        return Base64.encodeToString(iv, Base64.NO_WRAP) + ":" +
+                Base64.encodeToString(ct, Base64.NO_WRAP);
+    }
+
+    private static String uncachedDecrypt(String blob) throws Exception {
+        String[] parts = blob.split(":", 2);
+        byte[] iv = Base64.decode(parts[0], Base64.NO_WRAP);
+        byte[] ct = Base64.decode(parts[1], Base64.NO_WRAP);
+        Cipher c = Cipher.getInstance("AES/GCM/NoPadding");
+        c.init(Cipher.DECRYPT_MODE, loadKey(), new GCMParameterSpec(128, iv));
+        return new String(c.doFinal(ct), StandardCharsets.UTF_8);
+    }
+
+    // -------------------------
+    // Timing
+    // -------------------------
+
+    private interface Op { Object run() throws Exception; }
+
+    private static long medianNanos(Op op) throws Exception {
+        for (int i = 0; i < WARMUP; i++) op.run();
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long t0 = System.nanoTime();
+            op.run();
+            samples[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2];
+    }
+
+    private static void report(String name, long uncachedNs, long cachedNs) {
+        Log.i(TAG, String.format("%s: uncached %.1f us, cached %.1f us (%.1fx)",
+                name, uncachedNs / 1000.0, cachedNs / 1000.0, (double) uncachedNs / Math.max(1, cachedNs)));
+    }
+
+    private static String repeat(char ch, int n) {
+        char[] cs = new char[n];
+        Arrays.fill(cs, ch);
+        return new String(cs);
+    }
+}
@@ -4,22 +4,25 @@ import androidx.annotation.Nullable;
 
 import com.zybooks.myapplication.models.WeightRecord;
 
-import java.time.Instant;
 import java.time.LocalDate;
-import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.TreeMap;
 
 /**
  * Analytics
  * - Rolling average (entry-count window)
  * - Linear trend via least squares (slope in lb/day)
  * - Goal date projection from linear trend
+ * - Largest-Triangle-Three-Buckets downsampling for charts
+ * - TrendAccumulator: the same trend, updated one record at a time
  *
  * All methods are O(n) over the number of records.
  */
 public final class Analytics {
 
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
     private Analytics() {}
 
     /// Return the average of the last N entries (most recent first list works fine).
@@ -66,47 +69,75 @@ public final class Analytics {
     /// Compute linear regression over all points (least squares). Returns null if <2 points or degenerate.
     public static @Nullable Trend linearTrend(List<WeightRecord> items) {
         if (items == null || items.size() < 2) return null;
+        return TrendAccumulator.of(items).trend();
+    }
 
-        // Regress y (weight) on x (epochDay) for stability using sums.
-        double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0;
-        int n = 0;
-        long minX = Long.MAX_VALUE, maxX = Long.MIN_VALUE;
+    /** TrendAccumulator
+     * - Running least-squares sums, so one record can be added or removed in O(1)
+     *   (the x extent is kept in a sorted multiset: O(log n))
+     * - Lets a screen apply a single edit to its summary without rescanning the list
+     * - Not thread-safe; owned by one thread (the UI)
+     */
+    public static final class TrendAccumulator {
+        private double sumX, sumY, sumXX, sumXY;
+        private int n;
+        private final TreeMap<Long, Integer> days = new TreeMap<>(); // epochDay -> count
+
+        public static TrendAccumulator of(List<WeightRecord> items) {
+            TrendAccumulator acc = new TrendAccumulator();
+            for (WeightRecord r : items) acc.add(r);
+            return acc;
+        }
 
-        // For each record, extract (x = epochDay, y = weight) and accumulate sums
-        for (WeightRecord r : items) {
+        /// Include one record; rows with no timestamp or a malformed weight are skipped
+        public void add(WeightRecord r) {
+            accumulate(r, +1);
+        }
+
+        /// Undo a previous add() of an equal record
+        public void remove(WeightRecord r) {
+            accumulate(r, -1);
+        }
 
-            // Get the date
-            String iso = r.getDate();
-            // skip rows with no timestamp
-            if (iso == null || iso.isEmpty()) continue;
-            long x = isoToEpochDay(iso); // epochDay makes time-of-day irrelevant
+        private void accumulate(WeightRecord r, int sign) {
+            // Get the date; skip rows with no timestamp
+            if (r.getEpochMillis() == WeightRecord.NO_TIME) return;
+            long x = Math.floorDiv(r.getEpochMillis(), MILLIS_PER_DAY); // UTC epochDay makes time-of-day irrelevant
 
-            // Get the weight
+            // Get the weight; skip malformed weights
             double y = r.getWeight();
-            // skip malformed weights
-            if (Double.isNaN(y)) continue;
+            if (Double.isNaN(y)) return;
 
-            sumX  += x;
-            sumY  += y;
-            sumXX += (double) x * x;
-            sumXY += (double) x * y;
-            n++;
+            sumX  += sign * x;
+            sumY  += sign * y;
+            sumXX += sign * (double) x * x;
+            sumXY += sign * (double) x * y;
+            n += sign;
 
             // Track min/max x to later ensure projections are in the future
-            if (x < minX) minX = x;
-            if (x > maxX) maxX = x;
+            if (sign > 0) {
+                days.merge(x, 1, Integer::sum);
+            } else {
+                days.computeIfPresent(x, (k, c) -> c > 1 ? c - 1 : null);
+            }
         }
-        if (n < 2) return null;
 
-        // Denominator for slope
-        double denom = (n * sumXX - sumX * sumX);
-        if (Math.abs(denom) < 1e-9) return null;
+        public int size() { return n; }
 
-        // m (lb/day) and b (lb at epochDay=0)
-        double slope = (n * sumXY - sumX * sumY) / denom;
-        double intercept = (sumY - slope * sumX) / n;
+        /// Current least-squares line, or null if <2 points or degenerate
+        public @Nullable Trend trend() {
+            if (n < 2 || days.isEmpty()) return null;
 
-        return new Trend(slope, intercept, minX, maxX);
+            // Denominator for slope
+            double denom = (n * sumXX - sumX * sumX);
+            if (Math.abs(denom) < 1e-9) return null;
+
+            // m (lb/day) and b (lb at epochDay=0)
+            double slope = (n * sumXY - sumX * sumY) / denom;
+            double intercept = (sumY - slope * sumX) / n;
+
+            return new Trend(slope, intercept, days.firstKey(), days.lastKey());
+        }
     }
 
     /// Given a trend and a goal weight, return the projected date the line will cross the goal.
@@ -125,9 +156,48 @@ public final class Analytics {
         return LocalDate.ofEpochDay(xRounded);
     }
 
-    // -------- helpers --------
+    /// Largest-Triangle-Three-Buckets: pick at most `threshold` of the points [from, to)
+    /// (x ascending) that best keep the visual shape; first and last are always kept.
+    /// Writes point indices into `out` (length >= threshold) and returns how many were written.
+    /// Allocation-free so a chart can call it on every pan/zoom frame.
+    public static int lttb(double[] x, double[] y, int from, int to, int threshold, int[] out) {
+        int n = to - from;
+        if (n <= 0) return 0;
+        if (threshold >= n || threshold < 3) {
+            int k = Math.min(n, out.length);
+            for (int i = 0; i < k; i++) out[i] = from + i;
+            return k;
+        }
+
+        // Middle points split into (threshold - 2) buckets
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = from;
+        int k = 0;
+        out[k++] = a;
+
+        for (int i = 0; i < threshold - 2; i++) {
+            // Average of the next bucket (third triangle vertex)
+            int avgStart = from + (int) Math.floor((i + 1) * every) + 1;
+            int avgEnd = Math.min(from + (int) Math.floor((i + 2) * every) + 1, to);
+            double avgX = 0, avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) { avgX += x[j]; avgY += y[j]; }
+            int len = avgEnd - avgStart;
+            if (len > 0) { avgX /= len; avgY /= len; } else { avgX = x[to - 1]; avgY = y[to - 1]; }
+
+            // Point in this bucket forming the largest triangle with a and the average
+            int start = from + (int) Math.floor(i * every) + 1;
+            int end = from + (int) Math.floor((i + 1) * every) + 1;
+            double maxArea = -1;
+            int pick = start;
+            for (int j = start; j < end; j++) {
+                double area = Math.abs((x[a] - avgX) * (y[j] - y[a]) - (x[a] - x[j]) * (avgY - y[a]));
+                if (area > maxArea) { maxArea = area; pick = j; }
+            }
+            out[k++] = pick;
+            a = pick;
+        }
 
-    private static long isoToEpochDay(String iso) {
-        return Instant.parse(iso).atZone(ZoneOffset.UTC).toLocalDate().toEpochDay();
+        out[k++] = to - 1;
+        return k;
     }
 }
\ No newline at end of file
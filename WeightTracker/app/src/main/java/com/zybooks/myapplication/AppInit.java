@@ -0,0 +1,48 @@
+package com.zybooks.myapplication;
+
+import android.content.Context;
+
+import com.zybooks.myapplication.auth.AuthStore;
+import com.zybooks.myapplication.auth.Keys;
+import com.zybooks.myapplication.net.Api;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * AppInit
+ * - Builds the auth + network stack off the main thread, in dependency order:
+ *   keystore key -> stored auth state (decrypt) -> Api (AuthorizationService, OkHttp client)
+ * - Started from WeightTrackerApp.onCreate; screens render from the cache and call api()
+ *   to continue once it is ready (already ready on a warm start)
+ * - Each phase is timed through StartupTimer.phase()
+ * - A failed init is retried by the next api() call
+ */
+final class AppInit {
+    private static CompletableFuture<Api> api;   // guarded by AppInit.class
+
+    private AppInit() {}
+
+    /// The shared client, built on the "app-init" thread the first time this is asked for
+    static synchronized CompletableFuture<Api> api(Context ctx) {
+        if (api == null || api.isCompletedExceptionally()) {
+            api = start(ctx.getApplicationContext());
+        }
+        return api;
+    }
+
+    private static CompletableFuture<Api> start(Context app) {
+        CompletableFuture<Api> f = new CompletableFuture<>();
+        new Thread(() -> {
+            try {
+                // Keystore work first: everything below encrypts/decrypts with this key
+                StartupTimer.phase("keystore", () -> { Keys.ensure(app); return null; });
+                // Decrypt once so Crypto's key + cipher caches are warm for the first request
+                StartupTimer.phase("auth state", () -> new AuthStore(app).read());
+                f.complete(StartupTimer.phase("api client", () -> Api.get(app)));
+            } catch (Exception e) {
+                f.completeExceptionally(e);
+            }
+        }, "app-init").start();
+        return f;
+    }
+}
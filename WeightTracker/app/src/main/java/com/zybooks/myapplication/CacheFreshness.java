@@ -0,0 +1,48 @@
+package com.zybooks.myapplication;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+/**
+ * CacheFreshness
+ * - Remembers when the cached first page was last confirmed by the server (survives restarts)
+ * - Turns that age into a policy for a screen visit:
+ *   FRESH  (< FRESH_MS)      -> show the cache, no request
+ *   STALE  (< MAX_STALE_MS)  -> show the cache and revalidate in the background
+ *   EXPIRED (or never synced) -> wait for the network; the cache is only a fallback
+ */
+final class CacheFreshness {
+    static final long FRESH_MS = 60_000;                     // 1 minute
+    static final long MAX_STALE_MS = 24 * 60 * 60_000L;      // 1 day
+
+    private static final String FILE = "cache_meta";
+    private static final String KEY_SYNCED_AT = "weights_synced_at";
+
+    enum Policy { CACHE_ONLY, STALE_WHILE_REVALIDATE, NETWORK_FIRST }
+
+    private CacheFreshness() {}
+
+    /// The first page was just replaced with a server copy
+    static void markSynced(Context ctx) {
+        prefs(ctx).edit().putLong(KEY_SYNCED_AT, System.currentTimeMillis()).apply();
+    }
+
+    /// Milliseconds since the last sync, or Long.MAX_VALUE if never
+    static long ageMs(Context ctx) {
+        long at = prefs(ctx).getLong(KEY_SYNCED_AT, 0);
+        if (at <= 0) return Long.MAX_VALUE;
+        return Math.max(0, System.currentTimeMillis() - at);
+    }
+
+    static Policy decide(Context ctx, boolean haveCache) {
+        if (!haveCache) return Policy.NETWORK_FIRST;
+        long age = ageMs(ctx);
+        if (age < FRESH_MS) return Policy.CACHE_ONLY;
+        if (age < MAX_STALE_MS) return Policy.STALE_WHILE_REVALIDATE;
+        return Policy.NETWORK_FIRST;
+    }
+
+    private static SharedPreferences prefs(Context ctx) {
+        return ctx.getApplicationContext().getSharedPreferences(FILE, Context.MODE_PRIVATE);
+    }
+}
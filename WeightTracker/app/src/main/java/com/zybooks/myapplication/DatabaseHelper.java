@@ -7,6 +7,7 @@ package com.zybooks.myapplication;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 
@@ -15,6 +16,8 @@ import com.zybooks.myapplication.models.WeightRecord;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 
 /**
@@ -29,6 +32,15 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     private static final String TABLE_WEIGHT = "weight";
     private static final String TABLE_GOAL   = "goal";
 
+    /// The app's one cache thread. Every writer (screens, warm-up, background sync, pushed
+    /// changes) queues its writes here, so they apply in the order they were issued and a
+    /// slow response can't land on top of a newer one mid-way.
+    public static final Executor CACHE_IO = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "cache-io");
+        t.setDaemon(true);
+        return t;
+    });
+
     public DatabaseHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
     }
@@ -85,8 +97,100 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         }
     }
 
+    /// Replace the newest part of the cache with a fresh first page (newest first).
+    /// Older cached pages are kept for scrolling unless the page shows there is no more history.
+    public void replaceFirstPage(List<WeightRecord> page, int pageSize) {
+        if (page.size() < pageSize) {          // whole history fits: cache == page
+            replaceWeights(page);
+            return;
+        }
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            // Everything at or after the page's oldest row, in (recorded_at DESC, id DESC) order,
+            // is covered by the page. Rows tied on its timestamp with a smaller id belong to
+            // page 2 and are kept. Local drafts (negative ids) are dropped, the server copy wins.
+            WeightRecord last = page.get(page.size() - 1);
+            String oldest = last.getDate();
+            db.delete(TABLE_WEIGHT,
+                    "recorded_at > ? OR (recorded_at = ? AND id >= ?) OR id < 0",
+                    new String[]{oldest, oldest, String.valueOf(last.getId())});
+            for (WeightRecord r : page) insertOrReplace(db, r);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            db.close();
+        }
+    }
+
+    /// Insert or replace a batch (an older page fetched while scrolling).
+    public void upsertWeights(List<WeightRecord> items) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (WeightRecord r : items) insertOrReplace(db, r);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            db.close();
+        }
+    }
+
+    private static void insertOrReplace(SQLiteDatabase db, WeightRecord r) {
+        ContentValues v = new ContentValues();
+        v.put("id", r.getId());
+        v.put("value", r.getWeight());
+        v.put("recorded_at", r.getDate());
+        db.insertWithOnConflict(TABLE_WEIGHT, null, v, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    /// Insert or replace one cached weight (pushed change from the server).
+    public void upsertWeight(WeightRecord r) {
+        SQLiteDatabase db = getWritableDatabase();
+        insertOrReplace(db, r);
+        db.close();
+    }
+
+    /// Swap a local draft (negative id, written before the server answered) for the saved row.
+    public void replaceDraft(long draftId, WeightRecord saved) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_WEIGHT, "id = ?", new String[]{String.valueOf(draftId)});
+            insertOrReplace(db, saved);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            db.close();
+        }
+    }
+
+    /// Remove one cached weight by server id.
+    public void deleteWeight(long id) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.delete(TABLE_WEIGHT, "id = ?", new String[]{String.valueOf(id)});
+        db.close();
+    }
+
+    /// True if at least one weight is cached.
+    public boolean hasWeights() {
+        SQLiteDatabase db = getReadableDatabase();
+        long n = DatabaseUtils.queryNumEntries(db, TABLE_WEIGHT);
+        db.close();
+        return n > 0;
+    }
+
     /// Return all cached weights, newest first.
     public List<WeightRecord> getAllWeights() {
+        return queryWeights(null);
+    }
+
+    /// One page of cached weights, newest first (same order as GET /weights).
+    public List<WeightRecord> getWeightsPage(int limit, int offset) {
+        return queryWeights(offset + "," + limit);
+    }
+
+    private List<WeightRecord> queryWeights(String limit) {
         List<WeightRecord> out = new ArrayList<>();
         // open read-only
         SQLiteDatabase db = getReadableDatabase();
@@ -94,7 +198,8 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 TABLE_WEIGHT,
                 new String[]{"id", "value", "recorded_at"},
                 null, null, null, null,
-                "recorded_at DESC, id DESC"              // newest-first
+                "recorded_at DESC, id DESC",             // newest-first
+                limit
         );
         // Iterate rows → model objects
         while (c.moveToNext()) {
@@ -123,6 +228,13 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         db.close();
     }
 
+    /// Remove the cached goal (server reports none set).
+    public void clearGoal() {
+        SQLiteDatabase db = getWritableDatabase();
+        db.delete(TABLE_GOAL, null, null);
+        db.close();
+    }
+
     /// Return cached goal or null if none stored.
     public GoalRecord getGoal() {
         SQLiteDatabase db = getReadableDatabase();
@@ -1,6 +1,7 @@
 package com.zybooks.myapplication;
 
 import android.app.DatePickerDialog;
+import android.content.Intent;
 import android.os.Bundle;
 import android.os.PersistableBundle;
 import android.widget.Button;
@@ -11,8 +12,6 @@ import android.widget.Toast;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
-import com.zybooks.myapplication.net.Api;
-
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
@@ -22,6 +21,8 @@ import java.time.format.DateTimeFormatter;
  * DetailActivity
  * - Shows the details of a specific weight record
  * - Lets the user update the values of a specific record
+ * - Returns the edit to GridActivity (same extras, only the changed fields), which shows it
+ *   right away and sends the PATCH, rolling back if the server refuses
  */
 public class DetailActivity extends AppCompatActivity {
 
@@ -41,9 +42,6 @@ public class DetailActivity extends AppCompatActivity {
     // Record identity
     private long recordId = -1L;
 
-    // API
-    private Api api;
-
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -54,15 +52,6 @@ public class DetailActivity extends AppCompatActivity {
         dateInput    = findViewById(R.id.editRecordDateInput);
         updateButton = findViewById(R.id.updateRecordButton);
 
-        // --- get API ---
-        try {
-            api = Api.get(this);
-        } catch (Exception e) {
-            Toast.makeText(this, "Auth init error", Toast.LENGTH_SHORT).show();
-            finish();
-            return;
-        }
-
         // --- read extras and prefill ---
         recordId = getIntent().getLongExtra(EXTRA_ID, -1L);
         double value = getIntent().getDoubleExtra(EXTRA_VALUE, Double.NaN);
@@ -115,27 +104,12 @@ public class DetailActivity extends AppCompatActivity {
                 return;
             }
 
-            // Call API (partial update)
-            updateButton.setEnabled(false);
-            api.updateWeight(recordId, newValue, newIso, new Api.UpdateWeightCallback() {
-                @Override public void onSuccess(boolean updated) {
-                    runOnUiThread(() -> {
-                        updateButton.setEnabled(true);
-                        Toast.makeText(DetailActivity.this,
-                                updated ? "Updated ✔" : "No changes applied",
-                                Toast.LENGTH_SHORT).show();
-                        if (updated) finish(); // close and return to list
-                    });
-                }
-                @Override public void onError(int code, String message) {
-                    runOnUiThread(() -> {
-                        updateButton.setEnabled(true);
-                        Toast.makeText(DetailActivity.this,
-                                "Update failed: " + (code == 0 ? message : code),
-                                Toast.LENGTH_SHORT).show();
-                    });
-                }
-            });
+            // Hand the partial update back to the list screen
+            Intent result = new Intent().putExtra(EXTRA_ID, recordId);
+            if (newValue != null) result.putExtra(EXTRA_VALUE, newValue.doubleValue());
+            if (newIso != null) result.putExtra(EXTRA_DATE_ISO, newIso);
+            setResult(RESULT_OK, result);
+            finish(); // close and return to list
         });
     }
 
@@ -17,6 +17,7 @@ import androidx.core.content.ContextCompat;
 import com.zybooks.myapplication.models.GoalRecord;
 import com.zybooks.myapplication.net.Api;
 
+import java.time.Instant;
 import java.util.Locale;
 
 /**
@@ -24,6 +25,9 @@ import java.util.Locale;
  * - Toggle ON: requests SMS permission (once) and enables the input.
  * - Toggle OFF: clears goal on server and disables the input.
  * - Update button: PUT /goal with the entered value when toggle is ON.
+ * - Shows the cached goal as soon as CACHE_IO has read it (unless the server answered first);
+ *   server calls wait for AppInit's API client.
+ * - Saved/cleared goals are written to the cache too: the weights screen re-reads it on return.
  */
 public class GoalNotificationActivity extends AppCompatActivity {
 
@@ -38,6 +42,12 @@ public class GoalNotificationActivity extends AppCompatActivity {
     // --- api ---
     private Api api;
 
+    // --- state ---
+    /// True while code (not the user) moves the toggle; the listener ignores those changes
+    private boolean applyingToggle = false;
+    /// True once GET /goal has answered; a late cache read must not overwrite it
+    private boolean serverAnswered = false;
+
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -48,20 +58,30 @@ public class GoalNotificationActivity extends AppCompatActivity {
         goalInput = findViewById(R.id.goalInput);
         updateGoalButton = findViewById(R.id.updateGoalButton);
 
-        // Build API client
-        try {
-            api = Api.get(this);
-        } catch (Exception e) {
-            toast("Auth init error");
-            finish();
-            return;
-        }
-
-        // Prefill UI from server
-        loadGoal();
+        // Prefill UI from the cache (read off main), then from the server once the API client is built
+        setBusy(true);
+        DatabaseHelper.CACHE_IO.execute(() -> {
+            GoalRecord cached = new DatabaseHelper(getApplicationContext()).getGoal();
+            runOnUiThread(() -> {
+                if (isDestroyed() || serverAnswered) return;
+                showGoal(cached);
+                setBusy(true);
+            });
+        });
+        AppInit.api(this).whenComplete((a, ex) -> runOnUiThread(() -> {
+            if (isDestroyed()) return;
+            if (ex != null) {
+                toast("Auth init error");
+                finish();
+                return;
+            }
+            api = a;
+            loadGoal();
+        }));
 
         // Toggle: enable/disable input and request permission when turning ON
         toggleButton.setOnCheckedChangeListener((btn, checked) -> {
+            if (applyingToggle) return;   // server/cache state being shown, not a user action
             if (checked) {
                 if (!hasSmsPermission()) {
                     // Ask once; result handled in onRequestPermissionsResult
@@ -124,7 +144,7 @@ public class GoalNotificationActivity extends AppCompatActivity {
             } else {
                 toast("SMS permission denied");
                 // revert toggle and disable input to reflect no notifications
-                toggleButton.setChecked(false);
+                setToggle(false);
                 goalInput.setEnabled(false);
             }
         }
@@ -141,20 +161,17 @@ public class GoalNotificationActivity extends AppCompatActivity {
             @Override public void onSuccess(@Nullable GoalRecord goal) {
                 // Initiate the UI and prefill the form
                 runOnUiThread(() -> {
-                    final boolean hasGoal = goal != null;
-                    toggleButton.setChecked(hasGoal);
-                    goalInput.setEnabled(hasGoal);
-                    goalInput.setText(hasGoal
-                            ? String.format(Locale.US, "%.2f", goal.getValue())
-                            : "");
+                    serverAnswered = true;
+                    showGoal(goal);
                     setBusy(false);
                 });
             }
             @Override public void onError(int code, String message) {
                 // Inform the user of an error
                 runOnUiThread(() -> {
+                    serverAnswered = true;
                     toast("Load goal failed");
-                    toggleButton.setChecked(false);
+                    setToggle(false);
                     goalInput.setEnabled(false);
                     setBusy(false);
                 });
@@ -167,10 +184,13 @@ public class GoalNotificationActivity extends AppCompatActivity {
         setBusy(true);
         api.putGoal(value, null, new Api.PutGoalCallback() {
             @Override public void onSuccess() {
+                // Keep the cache in step, in order with every other cache write
+                final GoalRecord saved = new GoalRecord(value, Instant.now().toString());
+                DatabaseHelper.CACHE_IO.execute(() -> new DatabaseHelper(getApplicationContext()).setGoal(saved));
                 // Reset the UI
                 runOnUiThread(() -> {
                     toast("Goal updated");
-                    toggleButton.setChecked(true);
+                    setToggle(true);
                     goalInput.setEnabled(true);
                     setBusy(false);
                 });
@@ -190,10 +210,12 @@ public class GoalNotificationActivity extends AppCompatActivity {
         setBusy(true);
         api.deleteGoal(new Api.DeleteGoalCallback() {
             @Override public void onSuccess(boolean deleted) {
+                // No goal on the server either way: drop the cached one
+                DatabaseHelper.CACHE_IO.execute(() -> new DatabaseHelper(getApplicationContext()).clearGoal());
                 // Reset the UI
                 runOnUiThread(() -> {
                     toast(deleted ? "Goal cleared" : "No goal to clear");
-                    toggleButton.setChecked(false);
+                    setToggle(false);
                     goalInput.setText("");
                     goalInput.setEnabled(false);
                     setBusy(false);
@@ -213,6 +235,26 @@ public class GoalNotificationActivity extends AppCompatActivity {
     // UI utilities
     // ---------------------------
 
+    /// Toggle + input reflect whether a goal is set
+    private void showGoal(@Nullable GoalRecord goal) {
+        final boolean hasGoal = goal != null;
+        setToggle(hasGoal);
+        goalInput.setEnabled(hasGoal);
+        goalInput.setText(hasGoal
+                ? String.format(Locale.US, "%.2f", goal.getValue())
+                : "");
+    }
+
+    /// Move the toggle without running its listener (no spurious DELETE /goal or permission prompt)
+    private void setToggle(boolean checked) {
+        applyingToggle = true;
+        try {
+            toggleButton.setChecked(checked);
+        } finally {
+            applyingToggle = false;
+        }
+    }
+
     /// Disable controls while network is in-flight.
     private void setBusy(boolean busy) {
         updateGoalButton.setEnabled(!busy);
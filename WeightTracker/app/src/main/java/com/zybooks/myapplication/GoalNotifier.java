@@ -0,0 +1,141 @@
+package com.zybooks.myapplication;
+
+import android.Manifest;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.os.SystemClock;
+import android.telephony.SmsManager;
+
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * GoalNotifier
+ * - "Goal reached" messages go through here instead of being sent inline after each save
+ * - offer() only evaluates and queues (cheap, any thread); sending happens on the
+ *   "goal-notify" thread through a pluggable Sender (SMS in the app, a fake in tests)
+ * - Coalesced: offers within COALESCE_MS of each other become one message (bulk imports,
+ *   fast repeated entries); the latest offer wins
+ * - Deduplicated: a goal that was already congratulated isn't again until it changes
+ * - Rate-limited: at most one message per MIN_INTERVAL_MS; later offers wait for the slot
+ * - Memory only: a message waiting for its slot (up to MIN_INTERVAL_MS) is lost if the process
+ *   dies, and dedup/rate state starts over. Fine for a best-effort congratulation (the weight
+ *   itself is saved); anything that must arrive belongs in WorkManager instead
+ */
+final class GoalNotifier {
+    static final long COALESCE_MS = 2_000;
+    static final long MIN_INTERVAL_MS = 60 * 60_000L;   // 1 hour
+
+    private static final String DUMMY_SMS_NUMBER = "1234567890";
+
+    enum Outcome { SENT, NO_PERMISSION, FAILED }
+
+    /// Delivers one message; throw SecurityException when not allowed to send
+    interface Sender {
+        void send(String text) throws Exception;
+    }
+
+    /// Result of a dispatched offer, called on the notifier thread
+    interface Callback {
+        void onOutcome(Outcome outcome);
+    }
+
+    private static GoalNotifier instance;   // guarded by GoalNotifier.class
+
+    private final Sender sender;
+    private final ScheduledExecutorService queue;
+    private final LongSupplier clock;
+
+    // guarded by this
+    private double pendingGoal = Double.NaN;       // NaN: nothing queued
+    private @Nullable Callback pendingCallback;
+    private double lastSentGoal = Double.NaN;
+    private long lastSentAt = -1;
+
+    GoalNotifier(Sender sender, ScheduledExecutorService queue, LongSupplier clock) {
+        this.sender = sender;
+        this.queue = queue;
+        this.clock = clock;
+    }
+
+    /// Process-wide notifier sending SMS
+    static synchronized GoalNotifier get(Context ctx) {
+        if (instance == null) {
+            Context app = ctx.getApplicationContext();
+            ScheduledExecutorService queue = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "goal-notify");
+                t.setDaemon(true);
+                return t;
+            });
+            instance = new GoalNotifier(text -> sendSms(app, text), queue, SystemClock::elapsedRealtime);
+        }
+        return instance;
+    }
+
+    /// A weight was saved: queue a message if it meets the goal.
+    /// Returns true if a message is now queued for it.
+    boolean offer(double weight, double goal, @Nullable Callback callback) {
+        if (Double.isNaN(goal) || weight > goal) return false;
+        synchronized (this) {
+            if (goal == lastSentGoal) return false;   // already congratulated
+            boolean scheduled = !Double.isNaN(pendingGoal);
+            pendingGoal = goal;
+            pendingCallback = callback;
+            if (scheduled) return true;               // joins the queued message
+
+            long wait = COALESCE_MS;
+            if (lastSentAt >= 0) {
+                wait = Math.max(wait, lastSentAt + MIN_INTERVAL_MS - clock.getAsLong());
+            }
+            queue.schedule(this::dispatch, wait, TimeUnit.MILLISECONDS);
+            return true;
+        }
+    }
+
+    private void dispatch() {
+        double goal;
+        Callback callback;
+        synchronized (this) {
+            goal = pendingGoal;
+            callback = pendingCallback;
+            pendingGoal = Double.NaN;
+            pendingCallback = null;
+        }
+        if (Double.isNaN(goal)) return;
+
+        Outcome outcome;
+        try {
+            sender.send(message(goal));
+            outcome = Outcome.SENT;
+        } catch (SecurityException e) {
+            outcome = Outcome.NO_PERMISSION;
+        } catch (Exception e) {
+            outcome = Outcome.FAILED;
+        }
+        if (outcome == Outcome.SENT) {
+            synchronized (this) {
+                lastSentGoal = goal;
+                lastSentAt = clock.getAsLong();
+            }
+        }
+        if (callback != null) callback.onOutcome(outcome);
+    }
+
+    static String message(double goal) {
+        return "Congratulations, you hit your target goal of " + goal + " lb!";
+    }
+
+    private static void sendSms(Context app, String text) {
+        // Just report it if permission is missing (no prompt here)
+        if (ContextCompat.checkSelfPermission(app, Manifest.permission.SEND_SMS)
+                != PackageManager.PERMISSION_GRANTED) {
+            throw new SecurityException("SEND_SMS not granted");
+        }
+        SmsManager.getDefault().sendTextMessage(DUMMY_SMS_NUMBER, null, text, null, null);
+    }
+}
@@ -1,11 +1,8 @@
 package com.zybooks.myapplication;
 
-import android.Manifest;
 import android.app.DatePickerDialog;
 import android.content.Intent;
-import android.content.pm.PackageManager;
 import android.os.Bundle;
-import android.telephony.SmsManager;
 import android.widget.Button;
 import android.widget.DatePicker;
 import android.widget.EditText;
@@ -13,46 +10,79 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.core.content.ContextCompat;
 import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.zybooks.myapplication.models.GoalRecord;
 import com.zybooks.myapplication.models.WeightRecord;
-import com.zybooks.myapplication.net.Api;
+import com.zybooks.myapplication.ui.FrameMetricsRecorder;
+import com.zybooks.myapplication.ui.TrendChartView;
 import com.zybooks.myapplication.ui.WeightAdapter;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 /**
  * GridActivity
- * - Shows a list of weight records (RecyclerView)
+ * - Shows a list of weight records (RecyclerView); older pages load on demand while
+ *   scrolling (cache first, then network), so first paint only needs one page
  * - Lets the user add a new weight (optionally with a picked date)
+ * - Adds, edits (from DetailActivity) and deletes apply optimistically to the list, summary
+ *   and cache, then settle or roll back when the server answers; no refetch afterwards
+ * - State and loading live in GridViewModel, so rotation and coming back reuse it; a freshness
+ *   policy decides between cache only, cache + revalidate, and waiting for the network
  * - Computes rolling average + trend and displays summary
- * - Checks server-stored goal after adding and sends a dummy SMS if reached
+ * - Trend chart (TrendChartView) over the whole cached history: weights, rolling avg, trend line
+ * - Frame metrics per screen state (FrameMetricsRecorder); long-press the summary to export
+ * - Checks the goal after adding (the one loaded with the list, GET /goal only if that failed)
+ *   and sends a dummy SMS if reached
+ * - Renders the cache right away; network calls start once AppInit has built the API client
+ * - Stays current through the server push channel (Api.changes()) while visible,
+ *   instead of refetching on every resume
  */
 public class GridActivity extends AppCompatActivity {
 
     // --- constants ---
     private static final DateTimeFormatter US_DATE = DateTimeFormatter.ofPattern("M/d/uuuu");
     private static final DateTimeFormatter PRETTY_DATE = DateTimeFormatter.ofPattern("MMM d, uuuu");
-    private static final String DUMMY_SMS_NUMBER = "1234567890";
-    private static final int ROLLING_WINDOW = 7; // last N entries for rolling avg
+    private static final int PREFETCH_DISTANCE = 30;  // start the next page this many rows from the end
 
     // --- views & state ---
-    private Api api;
+    private GridViewModel vm;
     private TextView tv;              // summary (rolling avg, trend, projection)
     private EditText input;           // weight input
     private EditText dateInput;       // date input (opens DatePicker)
     private RecyclerView rv;
     private WeightAdapter adapter;
+    private TrendChartView chart;
+    private final FrameMetricsRecorder frames = FrameMetricsRecorder.forScreen("GridActivity");
+    private boolean diffing = false;     // a list submission is being diffed/applied
+    private boolean scrolling = false;
+    private @androidx.annotation.Nullable List<WeightRecord> shownRecords; // last list handed to the adapter
+    private int shownFirstPage = -1;     // first-page generation already scrolled to
+
+    // DetailActivity returns the edit; the model applies it before the PATCH lands
+    private final ActivityResultLauncher<Intent> editor = registerForActivityResult(
+            new ActivityResultContracts.StartActivityForResult(), res -> {
+                Intent data = res.getData();
+                if (res.getResultCode() != RESULT_OK || data == null) return;
+                vm.update(data.getLongExtra(DetailActivity.EXTRA_ID, -1L),
+                        data.hasExtra(DetailActivity.EXTRA_VALUE)
+                                ? Double.valueOf(data.getDoubleExtra(DetailActivity.EXTRA_VALUE, Double.NaN))
+                                : null,
+                        data.getStringExtra(DetailActivity.EXTRA_DATE_ISO));
+            });
 
     // Convert "M/d/yyyy" (local) to ISO Instant at start-of-day UTC (server expects ISO)
     private @androidx.annotation.Nullable String toIsoUtc(String mdy) {
@@ -84,6 +114,7 @@ public class GridActivity extends AppCompatActivity {
         Button send     = findViewById(R.id.sendButton);
         Button notifBtn = findViewById(R.id.notificationButton);
         rv = findViewById(R.id.weightsList);
+        chart = findViewById(R.id.trendChart);
 
         // Open notifications/goal screen
         notifBtn.setOnClickListener(v ->
@@ -95,45 +126,44 @@ public class GridActivity extends AppCompatActivity {
             dateInput.setText(LocalDate.now().format(US_DATE));
         }
 
-        // Build API client (adds auth via interceptor)
-        try {
-            api = Api.get(this);
-        } catch (Exception e) {
-            tv.setText("Auth init error");
-            return;
-        }
+        // Retained across rotation: holds the list, summary and requests in flight
+        vm = new ViewModelProvider(this).get(GridViewModel.class);
 
         // --- RecyclerView setup ---
         adapter = new WeightAdapter(new WeightAdapter.OnItemAction() {
             @Override public void onEdit(WeightRecord r) {
+                if (vm.isDraft(r)) return;
                 // Open detail screen with id, value, and original ISO timestamp
                 Intent i = new Intent(GridActivity.this, DetailActivity.class);
                 i.putExtra(DetailActivity.EXTRA_ID, r.getId());
                 i.putExtra(DetailActivity.EXTRA_VALUE, r.getWeight());
                 i.putExtra(DetailActivity.EXTRA_DATE_ISO, r.getDate()); // server "recorded_at" ISO string
-                startActivity(i);
+                editor.launch(i);
             }
             @Override public void onDelete(WeightRecord r) {
-                tv.setText("Deleting…");
-                api.deleteWeight(r.getId(), new Api.DeleteWeightCallback() {
-                    @Override public void onSuccess(boolean deleted) {
-                        runOnUiThread(() -> {
-                            if (deleted) {
-                                getWeights(); // refresh list + recompute analytics
-                            } else {
-                                tv.setText("Nothing deleted");
-                            }
-                        });
-                    }
-                    @Override public void onError(int code, String msg) {
-                        runOnUiThread(() -> tv.setText("API " + code + ": " + msg));
-                    }
-                });
+                vm.delete(r);
             }
         });
-        rv.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager lm = new LinearLayoutManager(this);
+        rv.setLayoutManager(lm);
         rv.setAdapter(adapter);
 
+        // Near the end of what's loaded -> fetch the next page
+        rv.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override public void onScrollStateChanged(RecyclerView view, int state) {
+                boolean now = state != RecyclerView.SCROLL_STATE_IDLE;
+                if (now == scrolling) return;
+                scrolling = now;
+                if (now) frames.begin(FrameMetricsRecorder.State.SCROLLING);
+                else frames.end(FrameMetricsRecorder.State.SCROLLING);
+            }
+            @Override public void onScrolled(RecyclerView view, int dx, int dy) {
+                if (dy > 0 && lm.findLastVisibleItemPosition() >= adapter.getRowCount() - PREFETCH_DISTANCE) {
+                    vm.loadMore();
+                }
+            }
+        });
+
         // --- Date picker wiring ---
         dateInput.setOnClickListener(v -> {
             // Initialize picker from current text if parseable; else today
@@ -155,82 +185,125 @@ public class GridActivity extends AppCompatActivity {
             dialog.show();
         });
 
-        // Kick off initial calls
-        fetchHealth(); // will be overwritten by analytics summary when weights load
-        getWeights();
+        // After a rotation the list keeps its own scroll position: don't jump to the top
+        if (savedInstanceState != null && vm.screen().getValue() != null) {
+            shownFirstPage = vm.screen().getValue().firstPage;
+        }
+
+        // Render whatever the model has (replayed after a rotation), then keep following it
+        StartupTimer.firstFrame(rv);
+        vm.screen().observe(this, this::render);
+        vm.series().observe(this, s -> chart.setSeries(s));
+        vm.notices().observe(this, n -> {
+            if (n == null) return;
+            Toast.makeText(this, n.text, Toast.LENGTH_SHORT).show();
+            if (n.restoreInput != null && input.getText().toString().isEmpty()) input.setText(n.restoreInput);
+            vm.noticeShown();
+        });
+        vm.start();
 
         // Add a record when tapped
         send.setOnClickListener(v -> postWeightRecord());
+
+        // Debug aid: long-press the summary to log + export frame metrics
+        tv.setOnLongClickListener(v -> {
+            FrameMetricsRecorder.logDumpAll();
+            try {
+                java.io.File f = FrameMetricsRecorder.export(this);
+                Toast.makeText(this, "Frame report: " + f.getName(), Toast.LENGTH_SHORT).show();
+            } catch (Exception e) {
+                Toast.makeText(this, "Export failed", Toast.LENGTH_SHORT).show();
+            }
+            return true;
+        });
     }
 
     @Override
     protected void onResume() {
         super.onResume();
-        getWeights(); // re-fetch to show latest values & recompute analytics
+        frames.attach(this);
     }
 
-    /// GET /health -> small one-line status (placeholder until weights summary loads)
-    private void fetchHealth() {
-        api.health(new Api.HealthCallback() {
-            @Override public void onSuccess(boolean ok) {
-                runOnUiThread(() -> tv.setText(ok ? "Connected" : "Health not OK"));
-            }
-            @Override public void onError(int code, String msg) {
-                runOnUiThread(() -> tv.setText("API " + code + ": " + msg));
-            }
-        });
+    @Override
+    protected void onPause() {
+        frames.detach();
+        super.onPause();
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        vm.onVisible();
+    }
+
+    @Override
+    protected void onStop() {
+        vm.onHidden();
+        super.onStop();
     }
 
-    /// GET /weights -> bind list and compute analytics summary
-    private void getWeights() {
-        tv.setText("Loading weights…");
-
-        // Show cached records immediately
-        DatabaseHelper db = new DatabaseHelper(this);
-        List<WeightRecord> cached = db.getAllWeights();
-        // If the cache isn't empty, render the analytics
-        if (!cached.isEmpty()) {
-            adapter.submitList(cached, () -> rv.scrollToPosition(0));
-            renderAnalyticsSummary(cached);
+    @Override
+    protected void onDestroy() {
+        // The recorder outlives this Activity (rotation): don't leave our states active
+        if (diffing) {
+            diffing = false;
+            frames.end(FrameMetricsRecorder.State.DIFFING);
+        }
+        if (scrolling) {
+            scrolling = false;
+            frames.end(FrameMetricsRecorder.State.SCROLLING);
         }
+        super.onDestroy();
+    }
 
-        // Then try fetching fresh data from API
-        api.listWeights(new Api.WeightsCallback() {
-            @Override public void onSuccess(List<WeightRecord> items) {
-                runOnUiThread(() -> {
-
-                    // On success update the UI list and update the analytics
-                    adapter.submitList(items, () -> rv.scrollToPosition(0));
-                    renderAnalyticsSummary(items);
-                    // Update cache with fresh copy
-                    new Thread(() -> {
-                        DatabaseHelper db2 = new DatabaseHelper(GridActivity.this);
-                        db2.replaceWeights(items);
-                    }).start();
-                });
-            }
-            @Override public void onError(int code, String msg) {
-                // Only show error if no cache existed
-                if (cached.isEmpty()) {
-                    runOnUiThread(() -> tv.setText("API " + code + ": " + msg));
-                }
+    /// Bind one model snapshot: list (only if it changed), footer, summary
+    private void render(GridViewModel.Screen s) {
+        if (s.records != shownRecords) {
+            shownRecords = s.records;
+            boolean toTop = s.firstPage != shownFirstPage;
+            shownFirstPage = s.firstPage;
+            submit(s.records, toTop ? () -> rv.scrollToPosition(0) : null);
+        }
+        adapter.setLoadingPlaceholder(s.loadingMore);
+        if (s.status != null) {
+            tv.setText(s.status);
+        } else {
+            renderAnalyticsSummary(s);
+        }
+    }
+
+    /// Hand a list to the adapter; frames until the newest submission is applied count as DIFFING
+    private void submit(List<WeightRecord> items, @androidx.annotation.Nullable Runnable then) {
+        if (!diffing) {
+            diffing = true;
+            frames.begin(FrameMetricsRecorder.State.DIFFING);
+        }
+        adapter.submitRecords(items, () -> {
+            // Superseded submissions never call back, so the newest one ends the state
+            if (diffing) {
+                diffing = false;
+                frames.end(FrameMetricsRecorder.State.DIFFING);
             }
+            if (then != null) then.run();
         });
     }
 
-    /// Build and display the analytics summary (rolling avg, trend, projection)
-    private void renderAnalyticsSummary(List<WeightRecord> items) {
+    /// Display the analytics summary (rolling avg, trend, projection) from a model snapshot.
+    /// goalKnown=false means the goal couldn't be loaded, so the projection is "unavailable".
+    private void renderAnalyticsSummary(GridViewModel.Screen s) {
+        frames.mark(FrameMetricsRecorder.State.SUMMARY);
+
         // If there are no weight entries, skip analytics.
-        if (items == null || items.isEmpty()) {
+        if (s.records.isEmpty()) {
             tv.setText("No weights yet.");
+            chart.setTrend(null);
             return;
         }
 
-        // Rolling average of last N entries (assumes newest-first list)
-        double avg = Analytics.lastNAverage(items, ROLLING_WINDOW);
-
-        // Linear trend (lb/day) from least squares
-        Analytics.Trend t = Analytics.linearTrend(items);
+        // Rolling average of last N entries + linear trend (lb/day), both kept by the model
+        double avg = s.average;
+        Analytics.Trend t = s.trend;
+        chart.setTrend(t);
         String trendLine;
         String projectionLine = "Projection: —";
 
@@ -247,47 +320,31 @@ public class GridActivity extends AppCompatActivity {
 
             // If we have a downward trend, attempt a projection with the user's goal
             if (lbPerDay < 0) {
-                api.getGoal(new Api.GetGoalCallback() {
-                    @Override public void onSuccess(GoalRecord goal) {
-                        // Update summary with projection if a goal exists
-                        runOnUiThread(() -> {
-                            String summaryTop = String.format(
-                                    "7-entry avg: %.2f lb\n%s",
-                                    avg, trendLine
-                            );
-                            if (goal != null && !Double.isNaN(goal.getValue())) {
-                                // Project goal date from trend line
-                                // Treat goal value as lbs (to match your UI)
-                                java.time.LocalDate date = Analytics.projectGoalDate(t, goal.getValue());
-                                String proj = (date == null)
-                                        ? "Projection: no reliable date yet"
-                                        : "Projection: ~" + date.format(PRETTY_DATE);
-                                tv.setText(summaryTop + "\n" + proj);
-                            } else {
-                                tv.setText(summaryTop + "\nProjection: set a goal to see an estimate");
-                            }
-                        });
-                    }
-                    @Override public void onError(int code, String message) {
-                        // If goal fetch fails, still show avg + trend
-                        runOnUiThread(() -> tv.setText(String.format(
-                                "7-entry avg: %.2f lb\n%s\nProjection: unavailable",
-                                avg, trendLine
-                        )));
-                    }
-                });
-                return; // Update tv in the goal callback
+                GoalRecord goal = s.goal;
+                if (!s.goalKnown) {
+                    // If goal fetch failed, still show avg + trend
+                    projectionLine = "Projection: unavailable";
+                } else if (goal != null && !Double.isNaN(goal.getValue())) {
+                    // Project goal date from trend line
+                    // Treat goal value as lbs (to match your UI)
+                    java.time.LocalDate date = Analytics.projectGoalDate(t, goal.getValue());
+                    projectionLine = (date == null)
+                            ? "Projection: no reliable date yet"
+                            : "Projection: ~" + date.format(PRETTY_DATE);
+                } else {
+                    projectionLine = "Projection: set a goal to see an estimate";
+                }
             }
         }
 
-        // No downward trend (or not enough data): show avg + trend, projection blank
+        // Show avg + trend + projection
         tv.setText(String.format(
                 "7-entry avg: %.2f lb\n%s\n%s",
                 avg, trendLine, projectionLine
         ));
     }
 
-    /// POST /weights -> add record, refresh list, then check goal.
+    /// POST /weights via the model: the new record shows up at once as a draft
     private void postWeightRecord() {
         // Validate weight input
         String text = input.getText().toString().trim();
@@ -299,63 +356,17 @@ public class GridActivity extends AppCompatActivity {
             return;
         }
 
-        // Optional picked date -> ISO
+        // Optional picked date -> ISO; otherwise now. We send the timestamp we show,
+        // so the draft and the saved row sort the same.
         String picked = dateInput.getText().toString().trim();
-        String isoUtc = picked.isEmpty() ? null : toIsoUtc(picked);
-
-        tv.setText("Saving…");
-        api.createWeight(value, isoUtc, new Api.CreateWeightCallback() {
-            @Override public void onSuccess(long id) {
-                // Reset the UI, retrieve new weights, and check goal
-                runOnUiThread(() -> {
-                    input.setText("");
-                    dateInput.setText(LocalDate.now().format(US_DATE)); // reset to today
-                    getWeights();                 // triggers analytics summary refresh
-                    checkGoalAndSendSMS(value);   // fire-and-forget
-                });
-            }
-            @Override public void onError(int code, String msg) {
-                // Inform the user an error occurred
-                runOnUiThread(() -> tv.setText("API " + code + ": " + msg));
-            }
-        });
-    }
-
-    /// After adding a weight, GET /goal and, if met, send a dummy SMS.
-    private void checkGoalAndSendSMS(double weight) {
-        api.getGoal(new Api.GetGoalCallback() {
-            @Override public void onSuccess(@androidx.annotation.Nullable GoalRecord goal) {
-                if (goal == null) return; // no goal set
-                double goalWeight = goal.getValue();
-                if (!Double.isNaN(goalWeight) && weight <= goalWeight) {
-                    runOnUiThread(() -> {
-                        // Just inform the user if permission is missing (no prompt here)
-                        if (ContextCompat.checkSelfPermission(
-                                GridActivity.this, Manifest.permission.SEND_SMS)
-                                == PackageManager.PERMISSION_GRANTED) {
-                            // Try to send the SMS notification
-                            try {
-                                SmsManager.getDefault().sendTextMessage(
-                                        DUMMY_SMS_NUMBER,
-                                        null,
-                                        "Congratulations, you hit your target goal of " + goalWeight + " lb!",
-                                        null,
-                                        null
-                                );
-                                Toast.makeText(GridActivity.this, "Goal reached! SMS sent.", Toast.LENGTH_SHORT).show();
-                            } catch (Exception e) {
-                                Toast.makeText(GridActivity.this, "Failed to send SMS.", Toast.LENGTH_SHORT).show();
-                            }
-                        } else {
-                            Toast.makeText(GridActivity.this, "Goal reached, but SMS permission not granted", Toast.LENGTH_SHORT).show();
-                        }
-                    });
-                }
-            }
-            @Override public void onError(int code, String msg) {
-                // Provide the user a toast with an error message
-                Toast.makeText(GridActivity.this, "Goal check failed", Toast.LENGTH_SHORT).show();
-            }
-        });
+        String pickedIso = picked.isEmpty() ? null : toIsoUtc(picked);
+        String iso = pickedIso != null
+                ? pickedIso
+                : Instant.now().truncatedTo(ChronoUnit.SECONDS).toString();
+
+        if (vm.create(value, iso, text)) {
+            input.setText("");
+            dateInput.setText(LocalDate.now().format(US_DATE)); // reset to today
+        }
     }
 }
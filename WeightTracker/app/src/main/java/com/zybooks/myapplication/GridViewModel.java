@@ -0,0 +1,711 @@
+package com.zybooks.myapplication;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.zybooks.myapplication.models.GoalRecord;
+import com.zybooks.myapplication.models.WeightRecord;
+import com.zybooks.myapplication.net.Api;
+import com.zybooks.myapplication.net.ApiException;
+import com.zybooks.myapplication.net.ChangeStream;
+import com.zybooks.myapplication.ui.FrameMetricsRecorder;
+import com.zybooks.myapplication.ui.TrendChartView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * GridViewModel
+ * - Everything GridActivity shows, retained across rotation and back-navigation:
+ *   loaded pages, trend summary, goal, optimistic edits and the requests in flight
+ * - Per visit, CacheFreshness decides: cache only, cache + background revalidation,
+ *   or wait for the network (the cache is then only a fallback)
+ * - Publishes immutable Screen snapshots; one-off messages go out as Notices
+ * - Optimistic edits: applied to the list, summary and cache at once, settled or rolled back
+ *   when the server answers
+ * - State is main-thread only; cache reads/writes run on CACHE_IO, the chart series is
+ *   rebuilt on the analytics thread (LatestCompute, newest rebuild wins)
+ */
+public class GridViewModel extends AndroidViewModel {
+
+    static final int PAGE_SIZE = 100;     // rows per page (cache + GET /weights)
+    static final int ROLLING_WINDOW = 7;  // last N entries for rolling avg
+
+    /// Same order as the cache and GET /weights: recorded_at DESC, id DESC
+    private static final Comparator<WeightRecord> NEWEST_FIRST = (a, b) -> {
+        int c = Long.compare(b.getEpochMillis(), a.getEpochMillis());
+        return c != 0 ? c : Long.compare(b.getId(), a.getId());
+    };
+
+    /// Optimistic cache writes and re-render reads, in order: a draft is written before its
+    /// replacement, and a re-read sees every write queued before it (shared with every other
+    /// cache writer in the app)
+    private static final Executor CACHE_IO = DatabaseHelper.CACHE_IO;
+
+    /// One immutable frame of the screen
+    static final class Screen {
+        final List<WeightRecord> records;     // newest first, every loaded page
+        final boolean loadingMore;            // show the "loading older entries" footer
+        final int firstPage;                  // bumped when a fresh first page replaces the list
+        final @Nullable String status;        // shown instead of the summary (loading, errors)
+        final double average;                 // rolling average of the newest entries
+        final @Nullable Analytics.Trend trend;
+        final @Nullable GoalRecord goal;
+        final boolean goalKnown;              // false: goal couldn't be loaded
+
+        Screen(List<WeightRecord> records, boolean loadingMore, int firstPage, @Nullable String status,
+               double average, @Nullable Analytics.Trend trend,
+               @Nullable GoalRecord goal, boolean goalKnown) {
+            this.records = records;
+            this.loadingMore = loadingMore;
+            this.firstPage = firstPage;
+            this.status = status;
+            this.average = average;
+            this.trend = trend;
+            this.goal = goal;
+            this.goalKnown = goalKnown;
+        }
+    }
+
+    /// One-off message for the user; restoreInput gives typed text back after a failed add
+    static final class Notice {
+        final String text;
+        final @Nullable String restoreInput;
+
+        Notice(String text, @Nullable String restoreInput) {
+            this.text = text;
+            this.restoreInput = restoreInput;
+        }
+    }
+
+    private final MutableLiveData<Screen> screen = new MutableLiveData<>();
+    private final MutableLiveData<TrendChartView.Series> series = new MutableLiveData<>();
+    private final MutableLiveData<Notice> notices = new MutableLiveData<>();
+    private final LatestCompute<TrendChartView.Series> chart = new LatestCompute<>(series::setValue);
+
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final FrameMetricsRecorder frames = FrameMetricsRecorder.forScreen("GridActivity");
+
+    private @Nullable Api api;
+    private boolean initialized = false;
+    private boolean visible = false;
+    private boolean cleared = false;
+    private @Nullable CompletableFuture<?> refreshing;         // first page + goal, done when both are
+    private @Nullable CompletableFuture<?> refreshingWeights;  // its two requests, cancelled on clear
+    private @Nullable CompletableFuture<?> refreshingGoal;
+
+    // --- paging ---
+    private final List<WeightRecord> loaded = new ArrayList<>();  // newest first, all pages so far
+    private final Set<Long> loadedIds = new HashSet<>();
+    private boolean loadingMore = false;
+    private boolean endReached = false;
+    private int pagingGeneration = 0;  // bumped on refresh; late pages of an older list are dropped
+    private int firstPage = 0;
+    private @Nullable List<WeightRecord> published;  // last records snapshot handed out
+
+    // --- summary + optimistic edits ---
+    private Analytics.TrendAccumulator summary = new Analytics.TrendAccumulator(); // trend over summaryIds
+    private final Set<Long> summaryIds = new HashSet<>();
+    private @Nullable GoalRecord goal;
+    private boolean goalKnown = false;
+    private int goalVersion = 0;   // bumped whenever `goal` is reset from a load
+    private @Nullable String status;
+    private final Set<Long> echoes = new HashSet<>(); // ids edited here; their pushed events are skipped
+    private int pendingCreates = 0;                   // POSTs whose id isn't known yet
+    private final Set<Long> createdMeanwhile = new HashSet<>(); // pushed creates seen while POSTs were out
+    private int pendingEdits = 0;             // edits still waiting on the server
+    private boolean renderDeferred = false;   // a pushed change arrived while edits were pending
+    private long nextDraftId = -1;            // drafts use negative ids until the server assigns one
+
+    public GridViewModel(@NonNull Application app) {
+        super(app);
+    }
+
+    LiveData<Screen> screen() { return screen; }
+    LiveData<TrendChartView.Series> series() { return series; }
+    LiveData<Notice> notices() { return notices; }
+
+    /// The Activity showed the current notice
+    void noticeShown() { notices.setValue(null); }
+
+    // -------------------------
+    // Lifecycle
+    // -------------------------
+
+    /// From every Activity.onCreate; only the first call (per retained model) loads anything
+    void start() {
+        if (initialized) return;
+        initialized = true;
+
+        // Cached records first unless they're too old to show; read on CACHE_IO so Activity
+        // creation does no disk I/O. The network waits for the API client.
+        CACHE_IO.execute(() -> {
+            DatabaseHelper db = new DatabaseHelper(getApplication());
+            CacheFreshness.Policy policy = CacheFreshness.decide(getApplication(), db.hasWeights());
+            List<WeightRecord> cached = policy != CacheFreshness.Policy.NETWORK_FIRST
+                    ? db.getWeightsPage(PAGE_SIZE, 0) : Collections.emptyList();
+            GoalRecord g = cached.isEmpty() ? null : db.getGoal();
+            main.post(() -> {
+                if (cleared) return;
+                boolean shown = showCached(cached, g);
+                if (!shown) setStatus("Loading weights…");
+                connect(policy, shown);
+            });
+        });
+    }
+
+    /// Once the API client is ready: fetch what the cache couldn't cover and open the push channel
+    private void connect(CacheFreshness.Policy policy, boolean shown) {
+        AppInit.api(getApplication()).whenComplete((a, ex) -> main.post(() -> {
+            if (cleared) return;
+            if (ex != null) {
+                if (!shown) fallBackToCache("Auth init error");
+                return;
+            }
+            api = a;
+            if (!shown) fetchHealth(); // placeholder until the weights summary loads
+            if (policy != CacheFreshness.Policy.CACHE_ONLY) fetchWeights(shown);
+            if (visible) startChanges();
+        }));
+    }
+
+    /// Activity.onStart: push channel on, and revalidate if the data went stale while away
+    void onVisible() {
+        visible = true;
+        if (initialized) reloadGoalFromCache();
+        if (api == null) return;
+        startChanges();
+        if (CacheFreshness.decide(getApplication(), !loaded.isEmpty()) != CacheFreshness.Policy.CACHE_ONLY) {
+            fetchWeights(!loaded.isEmpty());
+        }
+    }
+
+    /// Activity.onStop
+    void onHidden() {
+        visible = false;
+        stopChanges();
+    }
+
+    @Override
+    protected void onCleared() {
+        cleared = true;
+        stopChanges();
+        if (refreshingWeights != null) refreshingWeights.cancel(true);
+        if (refreshingGoal != null) refreshingGoal.cancel(true);
+        chart.cancel();
+    }
+
+    private void startChanges() {
+        // Pushed changes land in the cache; we just re-render from it
+        ChangeStream changes = api.changes();
+        changes.setListener(new ChangeStream.Listener() {
+            @Override public void onCacheChanged(String event, long id) {
+                // Our own edits are already on screen
+                main.post(() -> {
+                    if (event.startsWith("weight.") && echoes.remove(id)) return;
+                    // May be the echo of a POST that hasn't answered yet: decide when it does
+                    if (event.equals("weight.created") && pendingCreates > 0) {
+                        createdMeanwhile.add(id);
+                        return;
+                    }
+                    renderFromCache();
+                });
+            }
+            @Override public void onResync() { main.post(() -> fetchWeights(!loaded.isEmpty())); }
+        });
+        changes.start();
+    }
+
+    private void stopChanges() {
+        if (api == null) return;
+        api.changes().setListener(null);
+        api.changes().stop();
+    }
+
+    // -------------------------
+    // Loading
+    // -------------------------
+
+    /// Show a cached first page (and cached goal) read on CACHE_IO; false if there is none,
+    /// or if something else filled the list meanwhile
+    private boolean showCached(List<WeightRecord> cached, @Nullable GoalRecord g) {
+        if (cached.isEmpty() || !loaded.isEmpty()) return false;
+        setLoaded(cached, false);
+        resetSummary(cached, g, true);
+        StartupTimer.firstData("cache");
+        refreshChart();
+        return true;
+    }
+
+    /// Network failed with nothing on screen: old cache beats an empty list
+    private void fallBackToCache(String error) {
+        setStatus(error);
+        if (!loaded.isEmpty()) return;
+        CACHE_IO.execute(() -> {
+            DatabaseHelper db = new DatabaseHelper(getApplication());
+            List<WeightRecord> cached = db.getWeightsPage(PAGE_SIZE, 0);
+            GoalRecord g = cached.isEmpty() ? null : db.getGoal();
+            main.post(() -> {
+                if (!cleared && showCached(cached, g)) setStatus(error);
+            });
+        });
+    }
+
+    /// Re-read the cache off the main thread and re-publish (after a pushed change).
+    /// Reads as many rows as are currently loaded, so the scroll position survives.
+    private void renderFromCache() {
+        if (pendingEdits > 0) {   // the cache is mid-edit; settle() renders afterwards
+            renderDeferred = true;
+            return;
+        }
+        final int rows = Math.max(PAGE_SIZE, loaded.size());
+        final int gen = pagingGeneration;
+        CACHE_IO.execute(() -> {
+            DatabaseHelper db = new DatabaseHelper(getApplication());
+            List<WeightRecord> items = db.getWeightsPage(rows, 0);
+            GoalRecord g = db.getGoal();
+            refreshChart();
+            main.post(() -> {
+                if (gen != pagingGeneration || loadingMore) return; // list moved on meanwhile
+                if (pendingEdits > 0) {
+                    renderDeferred = true;
+                    return;
+                }
+                boolean end = endReached;
+                pagingGeneration++;
+                reload(items, end);
+                resetSummary(items, g, true);
+            });
+        });
+    }
+
+    /// GET /health -> small one-line status (placeholder until weights summary loads)
+    private void fetchHealth() {
+        api.health(new Api.HealthCallback() {
+            @Override public void onSuccess(boolean ok) {
+                main.post(() -> { if (status != null) setStatus(ok ? "Connected" : "Health not OK"); });
+            }
+            @Override public void onError(int code, String msg) {
+                main.post(() -> { if (status != null) setStatus("API " + code + ": " + msg); });
+            }
+        });
+    }
+
+    /// GET /weights + GET /goal -> new first page and analytics summary.
+    /// Both requests are started together, so the projection costs one round trip, not two.
+    /// A refresh already in flight (e.g. from before a rotation) is joined, not repeated.
+    private void fetchWeights(boolean haveCache) {
+        if (refreshing != null && !refreshing.isDone()) return;
+
+        // Fan out: fresh first page and goal in parallel
+        CompletableFuture<List<WeightRecord>> weightsF = api.listWeightsAsync(PAGE_SIZE, 0);
+        CompletableFuture<GoalRecord> goalF = api.getGoalAsync();
+        frames.begin(FrameMetricsRecorder.State.LOADING);
+
+        // Joinable until both have landed, so a goal still in flight isn't requested twice
+        refreshing = CompletableFuture.allOf(weightsF, goalF);
+        refreshingWeights = weightsF;
+        refreshingGoal = goalF;
+        weightsF.whenComplete((items, ex) -> {
+            if (ex != null) {
+                goalF.cancel(true);   // nothing to combine it with
+                main.post(() -> {
+                    frames.end(FrameMetricsRecorder.State.LOADING);
+                    // Only show error if nothing is on screen
+                    if (!haveCache && !cleared) fallBackToCache(errorText(ex));
+                });
+                return;
+            }
+            // Combine with the goal once it lands (a failed goal still shows avg + trend)
+            goalF.whenComplete((g, goalEx) -> main.post(() -> {
+                frames.end(FrameMetricsRecorder.State.LOADING);
+                if (cleared) return;
+                // On success restart paging from the fresh first page and update the analytics
+                setLoaded(items, items.size() < PAGE_SIZE);
+                echoes.clear(); // anything still unmatched is covered by the fresh page
+                createdMeanwhile.clear();
+                resetSummary(items, g, goalEx == null);
+                StartupTimer.firstData("network");
+
+                // Update cache with fresh copy
+                CACHE_IO.execute(() -> {
+                    DatabaseHelper db = new DatabaseHelper(getApplication());
+                    db.replaceFirstPage(items, PAGE_SIZE);
+                    CacheFreshness.markSynced(getApplication());
+                    if (goalEx == null) {
+                        if (g != null) db.setGoal(g); else db.clearGoal();
+                    }
+                    refreshChart();
+                });
+            }));
+        });
+    }
+
+    /// Start over from `items` as the first page(s); cancels any page load in progress
+    private void setLoaded(List<WeightRecord> items, boolean end) {
+        pagingGeneration++;
+        firstPage++;
+        reload(items, end);
+    }
+
+    private void reload(List<WeightRecord> items, boolean end) {
+        loaded.clear();
+        loadedIds.clear();
+        for (WeightRecord r : items) if (loadedIds.add(r.getId())) loaded.add(r);
+        endReached = end;
+        loadingMore = false;
+        published = null;
+    }
+
+    /// Next older page: from the cache if it has a full page there, otherwise GET /weights
+    void loadMore() {
+        if (loadingMore || endReached || api == null) return;
+        loadingMore = true;
+        publish();
+        frames.begin(FrameMetricsRecorder.State.LOADING);
+
+        final int gen = pagingGeneration;
+        final int offset = loaded.size();
+        CACHE_IO.execute(() -> {
+            List<WeightRecord> page = new DatabaseHelper(getApplication()).getWeightsPage(PAGE_SIZE, offset);
+            if (page.size() == PAGE_SIZE) {
+                main.post(() -> {
+                    frames.end(FrameMetricsRecorder.State.LOADING);
+                    appendPage(gen, page, false);
+                });
+                return;
+            }
+            api.listWeightsAsync(PAGE_SIZE, offset).whenComplete((items, ex) -> {
+                // Runs on an OkHttp thread: keep the cache write on CACHE_IO with the others
+                if (ex == null) {
+                    CACHE_IO.execute(() -> {
+                        new DatabaseHelper(getApplication()).upsertWeights(items);
+                        refreshChart();
+                    });
+                }
+                main.post(() -> {
+                    frames.end(FrameMetricsRecorder.State.LOADING);
+                    if (ex == null) {
+                        appendPage(gen, items, items.size() < PAGE_SIZE);
+                    } else if (gen == pagingGeneration) {
+                        // Drop the placeholder; the next scroll tries again
+                        loadingMore = false;
+                        publish();
+                        toast(errorText(ex));
+                    }
+                });
+            });
+        });
+    }
+
+    private void appendPage(int gen, List<WeightRecord> page, boolean end) {
+        if (gen != pagingGeneration) return; // list was refreshed meanwhile
+        for (WeightRecord r : page) if (loadedIds.add(r.getId())) loaded.add(r);
+        endReached = end;
+        loadingMore = false;
+        published = null;
+        publish();
+    }
+
+    /// Rebuild the chart series from the full cached history on the analytics thread.
+    /// Called after every cache write; a newer rebuild cancels an older one still running.
+    private void refreshChart() {
+        chart.submit(token -> {
+            List<WeightRecord> all = new DatabaseHelper(getApplication()).getAllWeights();
+            return token.isStale() ? null : TrendChartView.Series.of(all, ROLLING_WINDOW);
+        });
+    }
+
+    // -------------------------
+    // Summary + publishing
+    // -------------------------
+
+    /// Start the summary over from a freshly loaded list (its newest page) and publish
+    private void resetSummary(List<WeightRecord> items, @Nullable GoalRecord goal, boolean goalKnown) {
+        List<WeightRecord> page = items.size() <= PAGE_SIZE ? items : items.subList(0, PAGE_SIZE);
+        summary = Analytics.TrendAccumulator.of(page);
+        summaryIds.clear();
+        for (WeightRecord r : page) summaryIds.add(r.getId());
+        this.goal = goal;
+        this.goalKnown = goalKnown;
+        goalVersion++;
+        status = null;
+        publish();
+    }
+
+    private void setStatus(@Nullable String text) {
+        status = text;
+        publish();
+    }
+
+    /// Snapshot the current state for the Activity; the records list is copied only if it changed
+    private void publish() {
+        if (published == null) published = Collections.unmodifiableList(new ArrayList<>(loaded));
+        screen.setValue(new Screen(published, loadingMore, firstPage, status,
+                Analytics.lastNAverage(loaded, ROLLING_WINDOW), summary.trend(), goal, goalKnown));
+    }
+
+    private void toast(String text) {
+        notices.setValue(new Notice(text, null));
+    }
+
+    // -------------------------
+    // Optimistic edits
+    // -------------------------
+
+    /// POST /weights -> show the new record right away as a draft, then swap in the saved row
+    /// (or take it back out if the server refuses), and check the goal.
+    /// `iso` is the timestamp shown and sent; `typed` is given back if the add fails.
+    /// Returns false if the API client isn't ready yet.
+    boolean create(double value, String iso, String typed) {
+        if (!apiReady()) return false;
+        final WeightRecord draft = new WeightRecord(nextDraftId--, value, iso);
+        pendingEdits++;
+        pendingCreates++;   // before the POST: its pushed event can beat the response here
+        applyEdit(null, draft);
+
+        api.createWeight(value, iso, new Api.CreateWeightCallback() {
+            @Override public void onSuccess(long id) {
+                main.post(() -> {
+                    // Its echo either already came by (and was held back) or is still to come
+                    if (!createdMeanwhile.remove(id)) echoes.add(id);
+                    createAnswered();
+                    applyEdit(draft, new WeightRecord(id, value, iso));
+                    checkGoal(value);
+                    settle();
+                });
+            }
+            @Override public void onError(int code, String msg) {
+                // Take the draft back out, give the input back and inform the user
+                main.post(() -> {
+                    createAnswered();
+                    applyEdit(draft, null);
+                    notices.setValue(new Notice("Not saved", typed));
+                    setStatus("API " + code + ": " + msg);
+                    settle();
+                });
+            }
+        });
+        return true;
+    }
+
+    /// One POST answered; once none are out, creates held back that weren't ours are someone else's
+    private void createAnswered() {
+        if (--pendingCreates > 0 || createdMeanwhile.isEmpty()) return;
+        createdMeanwhile.clear();
+        renderFromCache();   // deferred until settle() if edits are still pending
+    }
+
+    /// DELETE /weights/:id -> the row disappears now and comes back if the server refuses
+    void delete(WeightRecord r) {
+        if (!apiReady() || isDraft(r)) return;
+        pendingEdits++;
+        echoes.add(r.getId());
+        applyEdit(r, null);
+        api.deleteWeight(r.getId(), new Api.DeleteWeightCallback() {
+            @Override public void onSuccess(boolean deleted) {
+                // deleted=false means it was already gone on the server: nothing to undo
+                main.post(() -> settle());
+            }
+            @Override public void onError(int code, String msg) {
+                main.post(() -> {
+                    echoes.remove(r.getId());
+                    applyEdit(null, r);
+                    setStatus("API " + code + ": " + msg);
+                    settle();
+                });
+            }
+        });
+    }
+
+    /// PATCH /weights/:id with the fields DetailActivity returned; shown before the server answers
+    void update(long id, @Nullable Double newValue, @Nullable String newIso) {
+        if (!apiReady()) return;
+        // Not loaded any more (list refreshed): just send it, the pushed change updates the cache
+        int i = indexOf(id);
+        final WeightRecord old = i < 0 ? null : loaded.get(i);
+        final WeightRecord edited = old == null ? null : new WeightRecord(id,
+                newValue != null ? newValue : old.getWeight(),
+                newIso != null ? newIso : old.getDate());
+
+        pendingEdits++;
+        if (old != null) {
+            echoes.add(id);
+            applyEdit(old, edited);
+        }
+        api.updateWeight(id, newValue, newIso, new Api.UpdateWeightCallback() {
+            @Override public void onSuccess(boolean updated) {
+                main.post(() -> {
+                    if (!updated) {
+                        // Nothing changed on the server (row gone?): put back what we had
+                        echoes.remove(id);
+                        if (old != null) applyEdit(edited, old);
+                        toast("No changes applied");
+                    }
+                    settle();
+                });
+            }
+            @Override public void onError(int code, String msg) {
+                main.post(() -> {
+                    echoes.remove(id);
+                    if (old != null) applyEdit(edited, old);
+                    toast("Update failed: " + (code == 0 ? msg : code));
+                    settle();
+                });
+            }
+        });
+    }
+
+    /// False (with a hint) while AppInit is still building the API client
+    private boolean apiReady() {
+        if (api != null) return true;
+        toast("Still connecting…");
+        return false;
+    }
+
+    /// Drafts have no server id yet, so they can't be edited or deleted
+    boolean isDraft(WeightRecord r) {
+        if (r.getId() >= 0) return false;
+        toast("Still saving…");
+        return true;
+    }
+
+    /// Swap `before` for `after` (either may be null) in the list, the summary and the cache,
+    /// and publish. Touches one record: no re-read, no refetch, no full analytics pass.
+    private void applyEdit(@Nullable WeightRecord before, @Nullable WeightRecord after) {
+        boolean changed = before != null && removeLoaded(before);
+        if (after != null && !loadedIds.contains(after.getId())) changed |= insertLoaded(after);
+        if (changed) {
+            published = null;
+            status = null;
+            publish();
+        }
+
+        CACHE_IO.execute(() -> {
+            DatabaseHelper db = new DatabaseHelper(getApplication());
+            if (after == null) {
+                db.deleteWeight(before.getId());
+            } else if (before != null && before.getId() != after.getId()) {
+                db.replaceDraft(before.getId(), after);
+            } else {
+                db.upsertWeight(after);
+            }
+            refreshChart();
+        });
+    }
+
+    /// Insert at the sorted position; false if it belongs to a page that isn't loaded yet
+    private boolean insertLoaded(WeightRecord r) {
+        int i = Collections.binarySearch(loaded, r, NEWEST_FIRST);
+        if (i < 0) i = -i - 1;
+        if (i == loaded.size() && !endReached) return false; // loadMore() will bring it from the cache
+        loaded.add(i, r);
+        loadedIds.add(r.getId());
+        if (i < PAGE_SIZE && summaryIds.add(r.getId())) {
+            summary.add(r);
+            // The summary covers the first page only: whatever was last on it moves out
+            if (loaded.size() > PAGE_SIZE) {
+                WeightRecord out = loaded.get(PAGE_SIZE);
+                if (summaryIds.remove(out.getId())) summary.remove(out);
+            }
+        }
+        return true;
+    }
+
+    private boolean removeLoaded(WeightRecord r) {
+        if (!loadedIds.remove(r.getId())) return false;
+        int i = Collections.binarySearch(loaded, r, NEWEST_FIRST);
+        if (i < 0 || loaded.get(i).getId() != r.getId()) i = indexOf(r.getId()); // refreshed meanwhile
+        WeightRecord removed = loaded.remove(i);
+        if (summaryIds.remove(removed.getId())) {
+            summary.remove(removed);
+            // ...and the first record of the next page moves in
+            if (loaded.size() >= PAGE_SIZE) {
+                WeightRecord in = loaded.get(PAGE_SIZE - 1);
+                if (summaryIds.add(in.getId())) summary.add(in);
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(long id) {
+        for (int i = 0; i < loaded.size(); i++) {
+            if (loaded.get(i).getId() == id) return i;
+        }
+        return -1;
+    }
+
+    /// One pending edit answered; once none are left, catch up on pushed changes we held back
+    private void settle() {
+        if (--pendingEdits == 0 && renderDeferred) {
+            renderDeferred = false;
+            renderFromCache();
+        }
+    }
+
+    // -------------------------
+    // Goal check
+    // -------------------------
+
+    /// After adding a weight, check it against the goal we have (or the cached one, never a
+    /// request) and hand a hit to GoalNotifier, which sends the SMS off the main thread
+    private void checkGoal(double weight) {
+        if (goalKnown) {
+            if (goal != null) offerGoal(weight, goal.getValue());
+            return;
+        }
+        CACHE_IO.execute(() -> {
+            GoalRecord g = new DatabaseHelper(getApplication()).getGoal();
+            if (g != null) offerGoal(weight, g.getValue());
+        });
+    }
+
+    /// The goal screen writes the cache on every change, and no pushed events arrive while we're
+    /// stopped: pick its goal up on return so checkGoal() doesn't use a stale one
+    private void reloadGoalFromCache() {
+        final int seen = goalVersion;
+        CACHE_IO.execute(() -> {
+            GoalRecord g = new DatabaseHelper(getApplication()).getGoal();
+            main.post(() -> {
+                // A load meanwhile brought a newer goal; an unknown one is read at check time anyway
+                if (cleared || !goalKnown || seen != goalVersion) return;
+                goal = g;
+                publish();
+            });
+        });
+    }
+
+    private void offerGoal(double weight, double goalWeight) {
+        GoalNotifier.get(getApplication()).offer(weight, goalWeight, outcome -> main.post(() -> {
+            if (cleared) return;
+            switch (outcome) {
+                case SENT: toast("Goal reached! SMS sent."); break;
+                case NO_PERMISSION: toast("Goal reached, but SMS permission not granted"); break;
+                default: toast("Failed to send SMS.");
+            }
+        }));
+    }
+
+    /// "API <code>: <message>" for a failed Api future
+    private static String errorText(Throwable ex) {
+        if (ex instanceof CompletionException && ex.getCause() != null) ex = ex.getCause();
+        if (ex instanceof ApiException) {
+            return "API " + ((ApiException) ex).getCode() + ": " + ex.getMessage();
+        }
+        return "API 0: " + ex.getMessage();
+    }
+}
@@ -0,0 +1,86 @@
+package com.zybooks.myapplication;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram
+ * - Fixed-bucket, lock-free duration histogram: written from any thread, read anywhere
+ * - Buckets are given as upper bounds in ms, plus one overflow bucket past the last bound;
+ *   samples are compared in nanoseconds, so 1.2 ms lands past a 1 ms bound, not under it
+ * - Optionally counts samples over a budget (frame deadline, SLO)
+ * - Shared by NetTimings (per endpoint/phase) and FrameMetricsRecorder (per screen state)
+ */
+public final class LatencyHistogram {
+    private final long[] boundsMs;
+    private final AtomicLongArray buckets;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong overBudget = new AtomicLong();
+    private final AtomicLong sumNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /// `boundsMs` ascending; not copied, so pass a constant
+    public LatencyHistogram(long[] boundsMs) {
+        this.boundsMs = boundsMs;
+        this.buckets = new AtomicLongArray(boundsMs.length + 1);
+    }
+
+    public void record(long nanos) {
+        record(nanos, false);
+    }
+
+    public void record(long nanos, boolean over) {
+        int i = 0;
+        while (i < boundsMs.length && nanos > boundsMs[i] * 1_000_000L) i++;
+        buckets.incrementAndGet(i);
+        count.incrementAndGet();
+        if (over) overBudget.incrementAndGet();
+        sumNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long count() { return count.get(); }
+
+    public long overBudget() { return overBudget.get(); }
+
+    public double meanMs() {
+        long n = count.get();
+        return n == 0 ? 0 : sumNanos.get() / 1e6 / n;
+    }
+
+    public double maxMs() { return maxNanos.get() / 1e6; }
+
+    /// Upper bound (ms) of the bucket holding quantile q; -1 means past the last bound
+    public long percentileMs(double q) {
+        long n = count.get();
+        if (n == 0) return 0;
+        long target = (long) Math.ceil(q * n);
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= target) return i < boundsMs.length ? boundsMs[i] : -1;
+        }
+        return -1;
+    }
+
+    /// { count, mean_ms, max_ms, p50_ms, p90_ms, p99_ms, buckets: { le_<ms>: n, ..., gt_<ms>: n } }
+    public JSONObject toJson() throws JSONException {
+        JSONObject j = new JSONObject();
+        j.put("count", count.get());
+        j.put("mean_ms", meanMs());
+        j.put("max_ms", maxMs());
+        j.put("p50_ms", percentileMs(0.50));
+        j.put("p90_ms", percentileMs(0.90));
+        j.put("p99_ms", percentileMs(0.99));
+        JSONObject b = new JSONObject();
+        for (int i = 0; i < buckets.length(); i++) {
+            String label = i < boundsMs.length ? "le_" + boundsMs[i] : "gt_" + boundsMs[boundsMs.length - 1];
+            b.put(label, buckets.get(i));
+        }
+        j.put("buckets", b);
+        return j;
+    }
+}
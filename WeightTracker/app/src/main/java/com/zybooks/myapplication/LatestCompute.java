@@ -0,0 +1,103 @@
+package com.zybooks.myapplication;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LatestCompute
+ * - Runs analytics work on the shared "analytics" thread, never on the main thread
+ * - Each submit() is stamped with a generation number and supersedes the previous one:
+ *   that one is skipped if still queued; if running it is left to finish (never interrupted:
+ *   work may be mid-way through a SQLite read) and its result is dropped
+ * - Only the newest result reaches the sink, on the main thread
+ * - Long work should poll its Token between steps and stop early once stale
+ */
+final class LatestCompute<T> {
+    private static final String TAG = "LatestCompute";
+
+    private static final ExecutorService COMPUTE = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "analytics");
+        t.setDaemon(true);
+        return t;
+    });
+
+    interface Work<T> {
+        @Nullable T compute(Token token) throws Exception;
+    }
+
+    interface Sink<T> {
+        void onResult(@Nullable T result);
+    }
+
+    /// Generation of one submit(); stale once a newer one was submitted or cancel() was called
+    static final class Token {
+        private final AtomicInteger current;
+        final int generation;
+
+        private Token(AtomicInteger current, int generation) {
+            this.current = current;
+            this.generation = generation;
+        }
+
+        boolean isStale() {
+            return generation != current.get();
+        }
+    }
+
+    private final AtomicInteger generation = new AtomicInteger();
+    private final ExecutorService compute;
+    private final Executor main;
+    private final Sink<T> sink;
+    private @Nullable Future<?> running;   // guarded by this
+
+    LatestCompute(Sink<T> sink) {
+        this(sink, COMPUTE, new Handler(Looper.getMainLooper())::post);
+    }
+
+    /// Tests supply their own compute thread and a hand-drained "main" queue
+    LatestCompute(Sink<T> sink, ExecutorService compute, Executor main) {
+        this.sink = sink;
+        this.compute = compute;
+        this.main = main;
+    }
+
+    /// Compute off the main thread; any thread may call this
+    void submit(Work<T> work) {
+        final Token token = new Token(generation, generation.incrementAndGet());
+        synchronized (this) {
+            if (running != null) running.cancel(false);
+            running = compute.submit(() -> {
+                if (token.isStale()) return;
+                T result;
+                try {
+                    result = work.compute(token);
+                } catch (Exception e) {
+                    Log.w(TAG, "compute failed: " + e.getMessage());
+                    return;
+                }
+                if (token.isStale()) return;
+                main.execute(() -> {
+                    if (!token.isStale()) sink.onResult(result);
+                });
+            });
+        }
+    }
+
+    /// Drop whatever is queued or running; nothing more is delivered until the next submit()
+    void cancel() {
+        generation.incrementAndGet();
+        synchronized (this) {
+            if (running != null) running.cancel(false);
+            running = null;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.zybooks.myapplication;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * StartupTimer
+ * - Milestones measured from process start (logcat tag "Startup")
+ * - firstData() logs time-to-first-data once per process, tagged with its source
+ *   and whether the warm-up ran; scripts/startup-compare.sh builds both variants and reports
+ *   the median over cold starts
+ * - phase() times one initialization step (also a Trace section, visible in Perfetto/systrace)
+ * - firstFrame() logs when the first screen is about to draw
+ */
+final class StartupTimer {
+    private static final String TAG = "Startup";
+    private static final AtomicBoolean firstData = new AtomicBoolean(false);
+    private static final AtomicBoolean firstFrame = new AtomicBoolean(false);
+
+    private StartupTimer() {}
+
+    /// Milliseconds since the process was started
+    static long sinceProcessStartMs() {
+        return SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime();
+    }
+
+    static void mark(String milestone) {
+        Log.i(TAG, milestone + " at " + sinceProcessStartMs() + " ms");
+    }
+
+    /// First time records are on screen ("cache" or "network")
+    static void firstData(String source) {
+        if (firstData.compareAndSet(false, true)) {
+            mark("first data (" + source + ", warmup=" + WeightTrackerApp.WARMUP_ENABLED + ")");
+        }
+    }
+
+    /// Run one startup phase, logging its duration and when it finished
+    static <T> T phase(String name, Callable<T> work) throws Exception {
+        long t0 = SystemClock.elapsedRealtime();
+        Trace.beginSection("startup:" + name);
+        try {
+            return work.call();
+        } finally {
+            Trace.endSection();
+            Log.i(TAG, "phase " + name + ": " + (SystemClock.elapsedRealtime() - t0)
+                    + " ms (done at " + sinceProcessStartMs() + " ms, " + Thread.currentThread().getName() + ")");
+        }
+    }
+
+    /// Mark the first pre-draw of `root` (once per process): time-to-first-frame
+    static void firstFrame(View root) {
+        if (firstFrame.get()) return;
+        ViewTreeObserver vto = root.getViewTreeObserver();
+        vto.addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override public boolean onPreDraw() {
+                root.getViewTreeObserver().removeOnPreDrawListener(this);
+                if (firstFrame.compareAndSet(false, true)) mark("first frame");
+                return true;
+            }
+        });
+    }
+}
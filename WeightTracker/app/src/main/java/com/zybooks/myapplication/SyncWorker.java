@@ -0,0 +1,155 @@
+package com.zybooks.myapplication;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.zybooks.myapplication.auth.AuthStore;
+import com.zybooks.myapplication.models.GoalRecord;
+import com.zybooks.myapplication.models.WeightRecord;
+import com.zybooks.myapplication.net.Api;
+import com.zybooks.myapplication.net.ApiException;
+import com.zybooks.myapplication.net.NetTimings;
+
+import net.openid.appauth.AuthState;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SyncWorker
+ * - Refreshes the cache (first weights page + goal) in the background, so opening the app
+ *   usually finds it fresh enough (CacheFreshness) to show without waiting on the network
+ * - schedule(): every 6 h with a 2 h flex window (lets the system batch it with other work),
+ *   only on an unmetered network while charging; exponential backoff from 30 s on failure
+ * - The page is written in one transaction (replaceFirstPage), on DatabaseHelper.CACHE_IO
+ * - Each run logs rows changed, bytes (its own calls only, via NetTimings.Meter) and duration (logcat tag "Sync") and keeps the
+ *   last run's numbers in SharedPreferences ("sync_stats")
+ */
+public class SyncWorker extends Worker {
+    static final String UNIQUE_NAME = "weights-sync";
+    private static final String TAG = "Sync";
+    private static final String STATS = "sync_stats";
+    private static final long TIMEOUT_S = 30;
+
+    public SyncWorker(@NonNull Context ctx, @NonNull WorkerParameters params) {
+        super(ctx, params);
+    }
+
+    /// Enqueue the periodic job (kept as-is if it is already scheduled)
+    static void schedule(Context ctx) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .setRequiresCharging(true)
+                .build();
+        PeriodicWorkRequest req = new PeriodicWorkRequest.Builder(
+                SyncWorker.class, 6, TimeUnit.HOURS, 2, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+                .build();
+        WorkManager.getInstance(ctx).enqueueUniquePeriodicWork(
+                UNIQUE_NAME, ExistingPeriodicWorkPolicy.KEEP, req);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context app = getApplicationContext();
+        long t0 = SystemClock.elapsedRealtime();
+
+        // Signed out: nothing to sync (not a failure)
+        try {
+            AuthState state = new AuthStore(app).read();
+            if (state == null || !state.isAuthorized()) return Result.success();
+        } catch (Exception e) {
+            return Result.success();
+        }
+
+        Api api;
+        try {
+            api = AppInit.api(app).get(TIMEOUT_S, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            return retry("init", e);
+        }
+
+        // Only this run's own calls: a screen refreshing at the same time isn't counted
+        NetTimings.Meter meter = new NetTimings.Meter();
+        try {
+            // Same pair of requests as the grid's refresh, in parallel
+            CompletableFuture<List<WeightRecord>> weightsF =
+                    api.listWeightsAsync(GridViewModel.PAGE_SIZE, 0, meter);
+            CompletableFuture<GoalRecord> goalF = api.getGoalAsync(meter);
+            List<WeightRecord> page = weightsF.get(TIMEOUT_S, TimeUnit.SECONDS);
+            GoalRecord goal = goalF.get(TIMEOUT_S, TimeUnit.SECONDS);
+
+            // On the shared cache thread, in order with the screen's writes; wait for it here
+            int changed = CompletableFuture.supplyAsync(() -> {
+                DatabaseHelper db = new DatabaseHelper(app);
+                int n = countChanged(db.getWeightsPage(GridViewModel.PAGE_SIZE, 0), page);
+                db.replaceFirstPage(page, GridViewModel.PAGE_SIZE);
+                if (goal != null) db.setGoal(goal); else db.clearGoal();
+                CacheFreshness.markSynced(app);
+                return n;
+            }, DatabaseHelper.CACHE_IO).get(TIMEOUT_S, TimeUnit.SECONDS);
+
+            report(app, "ok", changed, meter.bytes(), SystemClock.elapsedRealtime() - t0);
+            return Result.success();
+        } catch (ExecutionException e) {
+            // Client errors (bad auth, bad request) won't fix themselves: wait for the next period
+            Throwable cause = e.getCause();
+            if (cause instanceof ApiException) {
+                int code = ((ApiException) cause).getCode();
+                if (code >= 400 && code < 500) {
+                    report(app, "failed " + code, 0, meter.bytes(), SystemClock.elapsedRealtime() - t0);
+                    return Result.failure();
+                }
+            }
+            return retry("sync", cause != null ? cause : e);
+        } catch (Exception e) {
+            return retry("sync", e);
+        }
+    }
+
+    private Result retry(String step, Throwable e) {
+        Log.w(TAG, step + " failed (attempt " + getRunAttemptCount() + "): " + e.getMessage());
+        return Result.retry();
+    }
+
+    /// Rows that are new, changed or gone between the cached and the fresh first page
+    static int countChanged(List<WeightRecord> cached, List<WeightRecord> fresh) {
+        Map<Long, WeightRecord> old = new HashMap<>(cached.size() * 2);
+        for (WeightRecord r : cached) old.put(r.getId(), r);
+        int changed = 0;
+        for (WeightRecord r : fresh) {
+            WeightRecord o = old.remove(r.getId());
+            if (!r.equals(o)) changed++;
+        }
+        return changed + old.size();
+    }
+
+    private static void report(Context app, String result, int rowsChanged, long bytes, long durationMs) {
+        Log.i(TAG, "run " + result + ": rows changed=" + rowsChanged
+                + ", bytes=" + bytes + ", duration=" + durationMs + " ms");
+        app.getSharedPreferences(STATS, Context.MODE_PRIVATE).edit()
+                .putLong("last_run_at", System.currentTimeMillis())
+                .putString("last_result", result)
+                .putInt("last_rows_changed", rowsChanged)
+                .putLong("last_bytes", bytes)
+                .putLong("last_duration_ms", durationMs)
+                .apply();
+    }
+}
@@ -0,0 +1,66 @@
+package com.zybooks.myapplication;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.zybooks.myapplication.auth.AuthStore;
+import com.zybooks.myapplication.net.Api;
+
+import net.openid.appauth.AuthState;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Warmup
+ * - Runs once at process start, off the main thread, after AppInit has built the Api
+ * - Preconnect: GET /health opens DNS + TCP + TLS to Api.BASE, and because it passes through
+ *   AuthInterceptor, a token that is expired or about to expire is refreshed now
+ * - Prefetch: first weights page + goal are loaded into the SQLite cache, so GridActivity's
+ *   cached render has fresh data; if the screen asks while these are in flight, Api's
+ *   single-flight joins them instead of issuing duplicates
+ * - Cache writes are queued on DatabaseHelper.CACHE_IO, behind anything the screen wrote first
+ */
+final class Warmup {
+    private static final String TAG = "Warmup";
+
+    private Warmup() {}
+
+    static void start(Context ctx) {
+        Context app = ctx.getApplicationContext();
+        AppInit.api(app).whenComplete((api, ex) -> {
+            if (ex != null) {
+                Log.w(TAG, "Api init failed: " + ex.getMessage());
+                return;
+            }
+            run(app, api);
+        });
+    }
+
+    private static void run(Context app, Api api) {
+        // Signed out: nothing to prefetch (the login screen doesn't talk to the API)
+        try {
+            AuthState state = new AuthStore(app).read();
+            if (state == null || !state.isAuthorized()) return;
+        } catch (Exception e) {
+            return;
+        }
+
+        // Connection + token first, then both prefetches reuse that connection
+        api.healthAsync()
+                .handle((ok, ex) -> {
+                    StartupTimer.mark("warmup connected (ok=" + (ex == null) + ")");
+                    return null;
+                })
+                .thenCompose(v -> CompletableFuture.allOf(
+                        api.listWeightsAsync(GridViewModel.PAGE_SIZE, 0).thenAcceptAsync(items -> {
+                            new DatabaseHelper(app).replaceFirstPage(items, GridViewModel.PAGE_SIZE);
+                            CacheFreshness.markSynced(app); // the grid can skip its own fetch
+                        }, DatabaseHelper.CACHE_IO),
+                        api.getGoalAsync().thenAcceptAsync(goal -> {
+                            DatabaseHelper db = new DatabaseHelper(app);
+                            if (goal != null) db.setGoal(goal); else db.clearGoal();
+                        }, DatabaseHelper.CACHE_IO)))
+                .whenComplete((v, ex) -> StartupTimer.mark(
+                        "warmup prefetch " + (ex == null ? "done" : "failed: " + ex.getMessage())));
+    }
+}
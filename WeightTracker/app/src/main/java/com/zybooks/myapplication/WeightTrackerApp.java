@@ -0,0 +1,26 @@
+package com.zybooks.myapplication;
+
+import android.app.Application;
+
+/**
+ * WeightTrackerApp
+ * - Process-wide entry point
+ * - Starts the auth/network init (AppInit) and the warm-up/prefetch while the first
+ *   Activity is still inflating
+ * - Schedules the periodic background cache sync (SyncWorker)
+ */
+public class WeightTrackerApp extends Application {
+
+    /// Build with -Pwarmup=false to measure time-to-first-data without the warm-up
+    /// (scripts/startup-compare.sh builds and times both)
+    static final boolean WARMUP_ENABLED = BuildConfig.WARMUP;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        StartupTimer.mark("app onCreate");
+        AppInit.api(this);
+        if (WARMUP_ENABLED) Warmup.start(this);
+        SyncWorker.schedule(this);
+    }
+}
@@ -2,16 +2,47 @@ package com.zybooks.myapplication.auth;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.util.Log;
 
 import net.openid.appauth.AuthState;
 
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 // Storage model for the applications auth state
+// Writes are change-aware (same token material = no-op) and coalesced: a burst of
+// writes becomes one background encrypt + persist of the latest state.
 public final class AuthStore {
+    private static final String TAG = "AuthStore";
     private static final String FILE = "auth_store";
     private static final String KEY  = "auth_state_json";
+    private static final long COALESCE_MS = 50; // short, so a process kill rarely loses a rotation
+    private static final long RETRY_MS = 1_000;  // after a failed encrypt/persist
     private final SharedPreferences prefs;
     private final Context ctx;
 
+    // Bumped on every write/clear (any instance) so in-memory copies can tell they are stale
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    // Process-wide write state (there is one stored blob, whichever instance writes it)
+    private static final Object LOCK = new Object();
+    private static String lastFingerprint;   // token material last accepted by write() or first read()
+    private static String pendingJson;       // accepted but not yet persisted
+    private static boolean flushScheduled;   // a flush is queued on WRITER
+    private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "auth-store");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Counters: writes that changed nothing / were folded into a later one / hit storage
+    private static final AtomicLong SKIPPED = new AtomicLong();
+    private static final AtomicLong COALESCED = new AtomicLong();
+    private static final AtomicLong PERFORMED = new AtomicLong();
+
     public AuthStore(Context ctx) throws Exception {
         this.ctx = ctx.getApplicationContext();
 
@@ -22,23 +53,88 @@ public final class AuthStore {
         this.prefs = this.ctx.getSharedPreferences(FILE, Context.MODE_PRIVATE);
     }
 
-    // Serialize + encrypt + persist the AuthState.
+    // Serialize + encrypt + persist the AuthState (encryption happens in the background).
     public void write(AuthState state) {
+        String fp = fingerprint(state);
+        synchronized (LOCK) {
+            if (fp.equals(lastFingerprint)) {
+                SKIPPED.incrementAndGet();
+                return;
+            }
+            lastFingerprint = fp;
+
+            // Snapshot now: AuthState is mutable and keeps changing after we return
+            pendingJson = state.jsonSerializeString();
+            GENERATION.incrementAndGet();
+            if (flushScheduled) {
+                COALESCED.incrementAndGet(); // the queued flush will pick this one up
+                return;
+            }
+            flushScheduled = true;
+        }
+        WRITER.schedule(this::flush, COALESCE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // Persist the latest pending state, if any. Whatever is still pending afterwards
+    // (a newer write landed while encrypting, or the attempt failed) gets another flush.
+    private void flush() {
+        String json;
+        synchronized (LOCK) {
+            flushScheduled = false;
+            json = pendingJson;
+        }
+        if (json == null) return; // cleared meanwhile
+
+        long retryMs = COALESCE_MS;
         try {
-            String enc = Crypto.encrypt(state.jsonSerializeString());
-            prefs.edit().putString(KEY, enc).apply();
-        } catch (Exception ignore) {
-            // Optional: log/report; leaving as no-op keeps auth UX resilient.
+            String enc = Crypto.encrypt(json);
+            synchronized (LOCK) {
+                if (pendingJson == json) {   // not superseded or cleared while encrypting
+                    prefs.edit().putString(KEY, enc).apply();
+                    pendingJson = null;
+                    PERFORMED.incrementAndGet();
+                }
+            }
+        } catch (Exception e) {
+            // Keep the pending copy so reads still see it; retried below
+            Log.w(TAG, "Persist failed: " + e.getMessage());
+            retryMs = RETRY_MS;
         }
+
+        synchronized (LOCK) {
+            if (pendingJson == null || flushScheduled) return;
+            flushScheduled = true;
+        }
+        WRITER.schedule(this::flush, retryMs, TimeUnit.MILLISECONDS);
     }
 
     // Load, decrypt, and deserialize the AuthState.
+    // The first load from storage seeds lastFingerprint, so a fresh process doesn't re-persist
+    // the very state it just read back.
     public AuthState read() {
-        String blob = prefs.getString(KEY, null);
-        if (blob == null) return null;
+        String json;
+        long gen;
+        synchronized (LOCK) {
+            json = pendingJson;
+            gen = GENERATION.get();
+        }
         try {
-            String json = Crypto.decrypt(blob);
-            return AuthState.jsonDeserialize(json);
+            boolean stored = json == null;
+            if (stored) {
+                String blob = prefs.getString(KEY, null);
+                if (blob == null) return null;
+                json = Crypto.decrypt(blob);
+            }
+            AuthState state = AuthState.jsonDeserialize(json);
+            if (stored) {
+                synchronized (LOCK) {
+                    // Not if a write/clear landed meanwhile: what we read is no longer current
+                    if (lastFingerprint == null && GENERATION.get() == gen) {
+                        lastFingerprint = fingerprint(state);
+                    }
+                }
+            }
+            return state;
         } catch (Exception e) {
             // Includes JSON parse errors and decryption failures
             return null;
@@ -46,5 +142,30 @@ public final class AuthStore {
     }
 
     // Removes the stored state (signs the user out locally).
-    public void clear() { prefs.edit().remove(KEY).apply(); }
+    public void clear() {
+        synchronized (LOCK) {
+            pendingJson = null;
+            lastFingerprint = null;
+            prefs.edit().remove(KEY).apply();
+            GENERATION.incrementAndGet();   // under LOCK: read() checks it there before seeding
+        }
+    }
+
+    // Changes whenever the stored state does; cheap enough to check on every request.
+    public static long generation() { return GENERATION.get(); }
+
+    // "performed=3 coalesced=1 skipped=120"
+    public static String writeStats() {
+        return "performed=" + PERFORMED.get()
+                + " coalesced=" + COALESCED.get()
+                + " skipped=" + SKIPPED.get();
+    }
+
+    // What makes two states worth storing separately
+    private static String fingerprint(AuthState s) {
+        return Objects.toString(s.getAccessToken(), "") + '\n'
+                + Objects.toString(s.getRefreshToken(), "") + '\n'
+                + Objects.toString(s.getIdToken(), "") + '\n'
+                + s.getAccessTokenExpirationTime();
+    }
 }
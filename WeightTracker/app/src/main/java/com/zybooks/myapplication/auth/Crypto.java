@@ -3,6 +3,7 @@ package com.zybooks.myapplication.auth;
 import android.util.Base64;
 
 import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
 import java.security.KeyStore;
 
 import javax.crypto.Cipher;
@@ -10,20 +11,57 @@ import javax.crypto.SecretKey;
 import javax.crypto.spec.GCMParameterSpec;
 
 // Small helper to encrypt/decrypt strings using an AES key stored in Android Keystore.
+// The key handle is resolved once per process and each thread keeps its own Cipher;
+// both sit on the request/startup path (see CryptoBenchmark in androidTest).
 public final class Crypto {
     private static final String TFM = "AES/GCM/NoPadding";
 
-    // Pull the symmetric AES key from AndroidKeyStore.
+    // Cached key handle (the key material itself never leaves the Keystore)
+    private static volatile SecretKey cachedKey;
+
+    // Cipher objects are not thread-safe, but can be re-initialised for every operation
+    private static final ThreadLocal<Cipher> CIPHER = new ThreadLocal<>();
+
+    // Pull the symmetric AES key from AndroidKeyStore (first call only).
     private static SecretKey key() throws Exception {
-        KeyStore ks = KeyStore.getInstance("AndroidKeyStore");
-        ks.load(null);
-        return (SecretKey) ks.getKey(Keys.ALIAS, null);
+        SecretKey k = cachedKey;
+        if (k == null) {
+            synchronized (Crypto.class) {
+                k = cachedKey;
+                if (k == null) {
+                    KeyStore ks = KeyStore.getInstance("AndroidKeyStore");
+                    ks.load(null);
+                    k = (SecretKey) ks.getKey(Keys.ALIAS, null);
+                    if (k == null) throw new IllegalStateException("Key " + Keys.ALIAS + " missing");
+                    cachedKey = k;
+                }
+            }
+        }
+        return k;
     }
 
+    // This thread's Cipher; init() fully resets it, so reuse is safe
+    private static Cipher cipher() throws Exception {
+        Cipher c = CIPHER.get();
+        if (c == null) {
+            c = Cipher.getInstance(TFM);
+            CIPHER.set(c);
+        }
+        return c;
+    }
+
+    // Forget the cached handle (e.g. after the key was deleted/regenerated)
+    static void invalidateKey() { cachedKey = null; }
+
     // Encrypts a UTF-8 string and returns iv:ciphertext
     public static String encrypt(String plain) throws Exception {
-        Cipher c = Cipher.getInstance(TFM);
-        c.init(Cipher.ENCRYPT_MODE, key()); // generates a fresh random IV internally
+        Cipher c = cipher();
+        try {
+            c.init(Cipher.ENCRYPT_MODE, key()); // generates a fresh random IV internally
+        } catch (InvalidKeyException e) {
+            invalidateKey(); // stale handle: next call looks it up again
+            throw e;
+        }
         byte[] iv = c.getIV();
         byte[] ct = c.doFinal(plain.getBytes(StandardCharsets.UTF_8));
         // Join as iv:ciphertext
@@ -36,9 +74,14 @@ public final class Crypto {
         String[] parts = blob.split(":", 2); // split once: [iv, ciphertext]
         byte[] iv = Base64.decode(parts[0], Base64.NO_WRAP);
         byte[] ct = Base64.decode(parts[1], Base64.NO_WRAP);
-        Cipher c = Cipher.getInstance(TFM);
-        c.init(Cipher.DECRYPT_MODE, key(), new GCMParameterSpec(128, iv));
+        Cipher c = cipher();
+        try {
+            c.init(Cipher.DECRYPT_MODE, key(), new GCMParameterSpec(128, iv));
+        } catch (InvalidKeyException e) {
+            invalidateKey();
+            throw e;
+        }
         byte[] pt = c.doFinal(ct); // verifies tag; throws if tampered
         return new String(pt, StandardCharsets.UTF_8);
     }
-}
\ No newline at end of file
+}
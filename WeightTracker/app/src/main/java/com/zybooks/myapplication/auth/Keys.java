@@ -15,8 +15,20 @@ public class Keys {
     // Keystore alias for the symmetric key.
     public static final String ALIAS = "auth_prefs_key";
 
-    //  Key creation. Safe to call on every app start.
+    // Set once the key is known to exist in this process
+    private static volatile boolean ensured;
+
+    //  Key creation. Safe to call on every app start; only the first call touches the Keystore.
     public static void ensure(Context ctx) throws Exception {
+        if (ensured) return;
+        synchronized (Keys.class) {
+            if (ensured) return;
+            create(ctx);
+            ensured = true;
+        }
+    }
+
+    private static void create(Context ctx) throws Exception {
         KeyStore ks = KeyStore.getInstance("AndroidKeyStore");
         ks.load(null);
         if (ks.containsAlias(ALIAS)) return;
@@ -1,18 +1,37 @@
 package com.zybooks.myapplication.models;
 
+import androidx.annotation.NonNull;
+
 import org.json.JSONObject;
 
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
 /// WeightRecord - represents a single weight row from the API.
-public class WeightRecord {
-    private long id;
-    private double value; // weight value
-    private String date;
+/// Immutable and compact: the value is kept in hundredths (the server's DECIMAL(6,2)) and the
+/// time as epoch millis, so comparisons are exact and records work as hash keys.
+public final class WeightRecord {
+    public static final int NO_VALUE = Integer.MIN_VALUE;  // missing/malformed value
+    public static final long NO_TIME = Long.MIN_VALUE;     // missing/unparseable timestamp
 
-    // Constructor for a basic weight record
-    public WeightRecord(long id, double weight, String date) {
+    /// Same shape as the server's recorded_at (JS toISOString)
+    private static final DateTimeFormatter ISO_MILLIS =
+            DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    private final long id;
+    private final int centi;      // weight * 100
+    private final long epochMs;   // recorded_at
+
+    public WeightRecord(long id, int centi, long epochMs) {
         this.id = id;
-        this.value = weight;
-        this.date = date;
+        this.centi = centi;
+        this.epochMs = epochMs;
+    }
+
+    // Constructor from the API/cache representation (rounded to hundredths, ISO instant)
+    public WeightRecord(long id, double weight, String date) {
+        this(id, toCenti(weight), parseTime(date));
     }
 
     // Parse one row from the API (fields: id, value, recorded_at)
@@ -25,6 +44,46 @@ public class WeightRecord {
 
     // Getters for the members
     public long getId() { return id; }
-    public double getWeight() { return value; }
-    public String getDate() { return date; }
-}
\ No newline at end of file
+    public int getCenti() { return centi; }
+    public long getEpochMillis() { return epochMs; }
+
+    /// Weight in lb, NaN if missing
+    public double getWeight() { return centi == NO_VALUE ? Double.NaN : centi / 100.0; }
+
+    /// recorded_at as an ISO instant ("" if missing); formatted on each call, prefer getEpochMillis()
+    public String getDate() { return epochMs == NO_TIME ? "" : ISO_MILLIS.format(Instant.ofEpochMilli(epochMs)); }
+
+    public static int toCenti(double weight) {
+        return Double.isNaN(weight) || Double.isInfinite(weight) ? NO_VALUE : (int) Math.round(weight * 100);
+    }
+
+    public static long parseTime(String iso) {
+        if (iso == null || iso.isEmpty()) return NO_TIME;
+        try {
+            return Instant.parse(iso).toEpochMilli();
+        } catch (Exception e) {
+            return NO_TIME;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof WeightRecord)) return false;
+        WeightRecord r = (WeightRecord) o;
+        return id == r.id && centi == r.centi && epochMs == r.epochMs;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = Long.hashCode(id);
+        h = 31 * h + centi;
+        return 31 * h + Long.hashCode(epochMs);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "WeightRecord{id=" + id + ", value=" + getWeight() + ", at=" + getDate() + "}";
+    }
+}
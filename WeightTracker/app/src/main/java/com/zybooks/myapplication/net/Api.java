@@ -10,11 +10,27 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 
 import okhttp3.Call;
 import okhttp3.Callback;
+import okhttp3.EventListener;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
@@ -25,22 +41,63 @@ import okhttp3.Response;
 /**
  * Api
  * - Centralizes all HTTP calls to the backend
- * - Small typed callbacks per endpoint
- * - Single OkHttp client with auth interceptor
+ * - Small typed callbacks per endpoint, plus CompletableFuture variants (xxxAsync) for composition
+ * - Single OkHttp client with auth interceptor + 401 authenticator (shared TokenManager)
+ * - Identical in-flight GETs are collapsed into one network call (single-flight)
+ * - Per-endpoint phase timings (see NetTimings)
+ * - Idempotent calls retry with jittered backoff; a circuit breaker fails fast while
+ *   the backend is down and serves GETs from the last good response
+ * - GET /weights negotiates a compact binary page (see WeightsCodec), JSON as fallback
+ * - changes(): Server-Sent Events push channel that keeps the local cache current
  */
 public final class Api {
 
-    /// Base URL for all requests (change once, used everywhere)
+    /// Base URL of the real backend (Api.get() uses it for every request)
     public static final String BASE = "https://api.10-0-2-2.sslip.io";
     private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
 
     private static volatile Api INSTANCE;
+    private final Context app;
+    private final String base;
     private final OkHttpClient http;
+    private final NetTimings timings = new NetTimings();
+
+    /// Failure policy shared by every call
+    private final RetryPolicy retry = RetryPolicy.defaults();
+    private final CircuitBreaker breaker = CircuitBreaker.defaults();
+    private final ScheduledExecutorService retryTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "api-retry");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /// Last good result per GET, served while the breaker is open (small LRU)
+    private final Map<String, Object> lastGood = new LinkedHashMap<String, Object>(16, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(Map.Entry<String, Object> e) { return size() > 32; }
+    };
+
+    /// In-flight GETs keyed by URL (+ Accept); every waiter gets the one shared result
+    private final Map<String, Flight> inflight = new HashMap<>();
+    /// Per-endpoint count of network calls saved by joining an in-flight GET
+    private final Map<String, AtomicLong> dedupSaved = new ConcurrentHashMap<>();
 
     private Api(Context appCtx) throws Exception {
-        /// Interceptor adds/refreshes auth on each call
-        AuthInterceptor authi = new AuthInterceptor(appCtx);
-        this.http = new OkHttpClient.Builder().addInterceptor(authi).build();
+        this(appCtx, BASE, new TokenManager(appCtx), new OkHttpClient.Builder());
+    }
+
+    /// Any backend, token source and client settings (dispatcher, pool); the JVM load harness
+    /// runs the real client through this against a local stand-in server. `appCtx` is only
+    /// needed for changes().
+    Api(@androidx.annotation.Nullable Context appCtx, String base, TokenSource tokens,
+        OkHttpClient.Builder client) {
+        this.app = appCtx;
+        this.base = base;
+        /// Interceptor adds/refreshes auth on each call; a 401 refreshes once and replays
+        this.http = client
+                .addInterceptor(new AuthInterceptor(tokens, timings))
+                .authenticator(new TokenAuthenticator(tokens))
+                .eventListenerFactory(timings.listenerFactory())
+                .build();
     }
 
     /// Singleton bound to the app context
@@ -56,87 +113,285 @@ public final class Api {
     }
 
     // -------------------------
-    // Low-level JSON helpers
+    // Low-level helpers
     // -------------------------
 
-    private interface JsonCallback {
-        void onSuccess(JSONObject json);
+    /// Typed result of one call
+    private interface ResultCallback<T> {
+        void onSuccess(T value);
         void onError(int code, String message);
     }
 
-    /// GET helper: enqueue request, map to JSON or error
-    private void getJson(HttpUrl url, JsonCallback cb) {
-        // Build a simple GET request
-        Request req = new Request.Builder().url(url).get().build();
+    private interface JsonCallback extends ResultCallback<JSONObject> {}
 
-        // Execute asynchronously
-        http.newCall(req).enqueue(new Callback() {
-            @Override public void onFailure(Call call, IOException e) {
-                // Network/IO failure (no HTTP status)
-                cb.onError(0, e.getMessage());
-            }
-            @Override public void onResponse(Call call, Response res) throws IOException {
-                // Read body once (success or error text)
-                String body = res.body() != null ? res.body().string() : "";
+    /// Turns a successful response body into a typed result
+    private interface BodyParser<T> {
+        T parse(Request req, @androidx.annotation.Nullable MediaType type, byte[] body) throws Exception;
+    }
 
-                // Forward HTTP errors to caller with status code + body text
-                if (!res.isSuccessful()) { cb.onError(res.code(), body); return; }
+    /// Default parser: body is a JSON object
+    private final BodyParser<JSONObject> jsonParser = (req, type, body) ->
+            new JSONObject(new String(body, StandardCharsets.UTF_8));
 
-                // Try to parse JSON; surface a parse error if it fails
-                try { cb.onSuccess(new JSONObject(body)); }
-                catch (JSONException ex) { cb.onError(res.code(), "Parse error: " + ex.getMessage()); }
+    /// GET helper: enqueue request, map to JSON or error
+    private void getJson(@androidx.annotation.Nullable Ticket ticket, HttpUrl url, JsonCallback cb) {
+        get(ticket, new Request.Builder().url(url).get().build(), jsonParser, cb);
+    }
+
+    /// GET with a custom parser.
+    /// GETs are idempotent, so a request that is already in flight (same URL and Accept)
+    /// is joined instead of going to the network again; the single result fans out to all waiters.
+    /// A cancelled waiter just leaves; the shared call is cancelled once nobody is waiting.
+    @SuppressWarnings("unchecked")
+    private <T> void get(@androidx.annotation.Nullable Ticket ticket, Request req,
+                         BodyParser<T> parser, ResultCallback<T> cb) {
+        final String key = cacheKey(req);
+        final ResultCallback<Object> waiter = (ResultCallback<Object>) cb;
+        final Flight flight;
+        final boolean joined;
+
+        // Join an identical in-flight request if there is one
+        synchronized (inflight) {
+            Flight existing = inflight.get(key);
+            joined = existing != null;
+            flight = joined ? existing : new Flight(ticket != null ? ticket.meter : null);
+            flight.waiters.add(waiter);
+            if (!joined) inflight.put(key, flight);
+        }
+        if (ticket != null) ticket.onCancel(() -> leave(key, flight, waiter));
+        if (joined) {
+            dedupSaved.computeIfAbsent(req.url().encodedPath(), k -> new AtomicLong())
+                    .incrementAndGet();
+            return;
+        }
+
+        // Fan the one result out to every waiter
+        send(flight.ticket, req, true, parser, new ResultCallback<T>() {
+            @Override public void onSuccess(T value) {
+                for (ResultCallback<Object> w : drain(key, flight)) w.onSuccess(value);
+            }
+            @Override public void onError(int code, String message) {
+                for (ResultCallback<Object> w : drain(key, flight)) w.onError(code, message);
             }
         });
     }
 
-    /// POST helper: send JSON body, expect JSON back
-    private void postJson(String path, JSONObject payload, JsonCallback cb) {
-        // Build a POST with JSON body
-        Request req = new Request.Builder()
-                .url(BASE + path)
-                .post(RequestBody.create(payload.toString(), JSON))
-                .build();
+    /// Close `flight` and return everyone still waiting on it. Only that flight is unmapped:
+    /// if it was abandoned and a newer one took the key, the newer one stays joinable.
+    private List<ResultCallback<Object>> drain(String key, Flight flight) {
+        synchronized (inflight) {
+            inflight.remove(key, flight);
+            List<ResultCallback<Object>> out = new ArrayList<>(flight.waiters);
+            flight.waiters.clear();
+            return out;
+        }
+    }
 
-        // Execute asynchronously
-        http.newCall(req).enqueue(new Callback() {
-            @Override public void onFailure(Call call, IOException e) { cb.onError(0, e.getMessage()); }
-            @Override public void onResponse(Call call, Response res) throws IOException {
-                String body = res.body() != null ? res.body().string() : "";
+    /// A cancelled waiter leaves its flight; the last one out cancels the network call
+    private void leave(String key, Flight flight, ResultCallback<Object> waiter) {
+        boolean abandon;
+        synchronized (inflight) {
+            flight.waiters.remove(waiter);
+            abandon = flight.waiters.isEmpty() && inflight.get(key) == flight;
+            if (abandon) inflight.remove(key);
+        }
+        if (abandon) flight.ticket.cancel();
+    }
 
-                // Forward HTTP errors
-                if (!res.isSuccessful()) { cb.onError(res.code(), body); return; }
+    /// One shared in-flight GET; its bytes go to the meter of whoever started it
+    private static final class Flight {
+        final List<ResultCallback<Object>> waiters = new ArrayList<>();
+        final Ticket ticket;
 
-                // Parse JSON result
-                try { cb.onSuccess(new JSONObject(body)); }
-                catch (JSONException ex) { cb.onError(res.code(), "Parse error: " + ex.getMessage()); }
-            }
-        });
+        Flight(@androidx.annotation.Nullable NetTimings.Meter meter) { ticket = new Ticket(meter); }
+    }
+
+    /// Same URL with a different Accept is a different representation
+    private static String cacheKey(Request req) {
+        String accept = req.header("Accept");
+        return accept == null ? req.url().toString() : req.url() + "|" + accept;
+    }
+
+    /// Snapshot of network calls saved by single-flight, keyed by endpoint path
+    public Map<String, Long> dedupStats() {
+        Map<String, Long> out = new TreeMap<>();
+        for (Map.Entry<String, AtomicLong> e : dedupSaved.entrySet()) {
+            out.put(e.getKey(), e.getValue().get());
+        }
+        return out;
+    }
+
+    /// POST helper: send JSON body, expect JSON back (never retried: not idempotent)
+    private void postJson(@androidx.annotation.Nullable Ticket ticket, String path, JSONObject payload,
+                          JsonCallback cb) {
+        Request req = new Request.Builder()
+                .url(base + path)
+                .post(RequestBody.create(payload.toString(), JSON))
+                .build();
+        send(ticket, req, false, jsonParser, cb);
     }
 
     /// PUT helper: send JSON body, expect JSON back
-    private void putJson(String path, JSONObject payload, JsonCallback cb) {
-        // Build a PUT with JSON body
+    private void putJson(@androidx.annotation.Nullable Ticket ticket, String path, JSONObject payload,
+                         JsonCallback cb) {
         Request req = new Request.Builder()
-                .url(BASE + path)
+                .url(base + path)
                 .put(RequestBody.create(payload.toString(), JSON))
                 .build();
+        send(ticket, req, true, jsonParser, cb);
+    }
+
+    /// DELETE helper: no body, expect JSON back
+    private void deleteJson(@androidx.annotation.Nullable Ticket ticket, String path, JsonCallback cb) {
+        Request req = new Request.Builder().url(base + path).delete().build();
+        send(ticket, req, true, jsonParser, cb);
+    }
+
+    // -------------------------
+    // Transport policy: retry + circuit breaker
+    // -------------------------
+
+    /// Run a request under the retry/breaker policy and hand back the parsed body.
+    /// The breaker sees one logical call: it is asked once before the first attempt and told
+    /// one outcome at the end, however many attempts that took.
+    /// Once the ticket is cancelled, no further attempt is made and the callback is not invoked.
+    private <T> void send(@androidx.annotation.Nullable Ticket ticket, Request req, boolean idempotent,
+                          BodyParser<T> parser, ResultCallback<T> cb) {
+        attempt(ticket, req, idempotent, 1, parser, cb);
+    }
+
+    private <T> void attempt(@androidx.annotation.Nullable Ticket ticket, Request req, boolean idempotent,
+                             int n, BodyParser<T> parser, ResultCallback<T> cb) {
+        if (ticket != null && ticket.isCancelled()) return;
+
+        // Backend known to be down: fail fast (GETs fall back to the last good response)
+        if (n == 1 && !breaker.allowRequest()) {
+            fail(req, 0, "Circuit open: backend unavailable", cb);
+            return;
+        }
+
+        NetTimings.Meter meter = ticket != null ? ticket.meter : null;
+        Call httpCall = http.newCall(meter == null ? req
+                : req.newBuilder().tag(NetTimings.Meter.class, meter).build());
+        if (ticket != null) ticket.onCancel(httpCall::cancel);
+        httpCall.enqueue(new Callback() {
+            @Override public void onFailure(Call call, IOException e) {
+                // Cancelled by the caller: not a backend failure, nobody to tell
+                if (call.isCanceled()) return;
+                // Network/IO failure or timeout (no HTTP status)
+                retryOrFail(ticket, req, idempotent, n, 0, e.getMessage(), parser, cb);
+            }
+            @Override public void onResponse(Call call, Response res) {
+                // Read body once (success or error text)
+                byte[] body;
+                MediaType type;
+                try {
+                    body = res.body() != null ? res.body().bytes() : new byte[0];
+                    type = res.body() != null ? res.body().contentType() : null;
+                } catch (IOException e) {
+                    if (call.isCanceled()) return;
+                    retryOrFail(ticket, req, idempotent, n, 0, e.getMessage(), parser, cb);
+                    return;
+                } finally {
+                    res.close();
+                }
 
-        // Execute asynchronously
-        http.newCall(req).enqueue(new Callback() {
-            @Override public void onFailure(Call call, IOException e) { cb.onError(0, e.getMessage()); }
-            @Override public void onResponse(Call call, Response res) throws IOException {
-                String body = res.body() != null ? res.body().string() : "";
+                // 5xx/408/429 count against the backend; anything else means it is up
+                if (RetryPolicy.isTransient(res.code())) {
+                    retryOrFail(ticket, req, idempotent, n, res.code(),
+                            new String(body, StandardCharsets.UTF_8), parser, cb);
+                    return;
+                }
+                breaker.onSuccess();
+
+                // A retried DELETE may have landed on an attempt whose response was lost:
+                // "not found" / nothing deleted then means the row is already gone
+                int code = res.code();
+                boolean retriedDelete = n > 1 && "DELETE".equals(req.method());
+                if (retriedDelete && (code == 404 || (res.isSuccessful() && deletedNothing(body)))) {
+                    code = 200;
+                    body = ALREADY_DELETED;
+                }
 
-                // Forward HTTP errors
-                if (!res.isSuccessful()) { cb.onError(res.code(), body); return; }
+                // Forward HTTP errors to caller with status code + body text
+                if (code < 200 || code >= 300) {
+                    cb.onError(code, new String(body, StandardCharsets.UTF_8));
+                    return;
+                }
 
-                // Parse JSON result
-                try { cb.onSuccess(new JSONObject(body)); }
-                catch (JSONException ex) { cb.onError(res.code(), "Parse error: " + ex.getMessage()); }
+                // Parse result (timed); remember good GET responses for breaker fallback
+                T value;
+                long t0 = System.nanoTime();
+                try { value = parser.parse(req, type, body); }
+                catch (Exception ex) { cb.onError(code, "Parse error: " + ex.getMessage()); return; }
+                finally {
+                    timings.record(NetTimings.endpointOf(req), NetTimings.Phase.PARSE, System.nanoTime() - t0);
+                }
+                if ("GET".equals(req.method())) remember(req, value);
+                cb.onSuccess(value);
             }
         });
     }
 
+    /// Schedule another attempt with jittered backoff, or give up and count one failure.
+    /// No retries once the breaker is open: a half-open probe gets a single attempt, and other
+    /// calls stop piling onto a backend that's already known to be down.
+    private <T> void retryOrFail(@androidx.annotation.Nullable Ticket ticket, Request req, boolean idempotent,
+                                 int n, int code, String msg, BodyParser<T> parser, ResultCallback<T> cb) {
+        if (retry.shouldRetry(idempotent, n, code) && !breaker.isOpen()) {
+            retryTimer.schedule(() -> attempt(ticket, req, idempotent, n + 1, parser, cb),
+                    retry.delayMs(n), TimeUnit.MILLISECONDS);
+        } else {
+            breaker.onFailure();
+            fail(req, code, msg, cb);
+        }
+    }
+
+    /// What a retried DELETE reports when an earlier attempt already removed the row
+    private static final byte[] ALREADY_DELETED = "{\"ok\":true,\"deleted\":1}".getBytes(StandardCharsets.UTF_8);
+
+    /// True for a {"deleted": 0} body
+    private static boolean deletedNothing(byte[] body) {
+        try {
+            return new JSONObject(new String(body, StandardCharsets.UTF_8)).optInt("deleted", -1) == 0;
+        } catch (JSONException e) {
+            return false;
+        }
+    }
+
+    /// Final failure: while the breaker is open, serve a GET from the last good response
+    @SuppressWarnings("unchecked")
+    private <T> void fail(Request req, int code, String msg, ResultCallback<T> cb) {
+        if ("GET".equals(req.method()) && breaker.isOpen()) {
+            Object cached;
+            synchronized (lastGood) { cached = lastGood.get(cacheKey(req)); }
+            if (cached != null) { cb.onSuccess((T) cached); return; }
+        }
+        cb.onError(code, msg);
+    }
+
+    private void remember(Request req, Object value) {
+        synchronized (lastGood) { lastGood.put(cacheKey(req), value); }
+    }
+
+    /// Per-phase latency histograms for every endpoint (dump() / toJson() to export)
+    public NetTimings timings() { return timings; }
+
+    /// Push channel for this user's weight/goal changes (created on first use)
+    private ChangeStream changes;
+    public synchronized ChangeStream changes() {
+        if (changes == null) {
+            // Same auth, pool and dispatcher; long-lived reads (server heartbeats every 25s).
+            // Not timed: one never-ending call would land in the TOTAL/BODY histograms as an outlier
+            OkHttpClient streaming = http.newBuilder()
+                    .readTimeout(60, TimeUnit.SECONDS)
+                    .eventListenerFactory(call -> EventListener.NONE)
+                    .build();
+            changes = new ChangeStream(app, base, streaming);
+        }
+        return changes;
+    }
+
     // -------------------------
     // Public endpoints
     // -------------------------
@@ -146,9 +401,10 @@ public final class Api {
         void onSuccess(boolean ok);
         void onError(int code, String message);
     }
-    public void health(HealthCallback cb) {
+    public void health(HealthCallback cb) { health(null, cb); }
+    private void health(@androidx.annotation.Nullable Ticket ticket, HealthCallback cb) {
         // Call /health and project to a boolean for the UI
-        getJson(HttpUrl.parse(BASE + "/health"), new JsonCallback() {
+        getJson(ticket, HttpUrl.parse(base + "/health"), new JsonCallback() {
             @Override public void onSuccess(JSONObject json) { cb.onSuccess(json.optBoolean("ok", false)); }
             @Override public void onError(int code, String message) { cb.onError(code, message); }
         });
@@ -162,6 +418,11 @@ public final class Api {
     }
     public void createWeight(double value, @androidx.annotation.Nullable String isoRecordedAtUtc,
                              CreateWeightCallback cb) {
+        createWeight(null, value, isoRecordedAtUtc, cb);
+    }
+    private void createWeight(@androidx.annotation.Nullable Ticket ticket, double value,
+                              @androidx.annotation.Nullable String isoRecordedAtUtc,
+                              CreateWeightCallback cb) {
         // Build payload with required value and optional ISO timestamp
         JSONObject payload = new JSONObject();
         try {
@@ -176,7 +437,7 @@ public final class Api {
         }
 
         // POST and return the new row id to the caller
-        postJson("/weights", payload, new JsonCallback() {
+        postJson(ticket, "/weights", payload, new JsonCallback() {
             @Override public void onSuccess(JSONObject json) { cb.onSuccess(json.optLong("id", -1)); }
             @Override public void onError(int code, String message) { cb.onError(code, message); }
         });
@@ -192,31 +453,44 @@ public final class Api {
         void onSuccess(List<WeightRecord> items);
         void onError(int code, String message);
     }
-    public void listWeights(int limit, int offset, WeightsCallback cb) {
+    public void listWeights(int limit, int offset, WeightsCallback cb) { listWeights(null, limit, offset, cb); }
+    private void listWeights(@androidx.annotation.Nullable Ticket ticket, int limit, int offset,
+                             WeightsCallback cb) {
         // Build URL with paging params
-        HttpUrl url = HttpUrl.parse(BASE + "/weights").newBuilder()
+        HttpUrl url = HttpUrl.parse(base + "/weights").newBuilder()
                 .addQueryParameter("limit", String.valueOf(limit))
                 .addQueryParameter("offset", String.valueOf(offset))
                 .build();
 
-        // GET, then map "items" into a typed list
-        getJson(url, new JsonCallback() {
-            @Override public void onSuccess(JSONObject json) {
-                // Extract array and convert each object via WeightRecord.fromJson
-                JSONArray arr = json.optJSONArray("items");
-                List<WeightRecord> out = new ArrayList<>();
-                if (arr != null) {
-                    for (int i = 0; i < arr.length(); i++) {
-                        JSONObject row = arr.optJSONObject(i);
-                        if (row != null) out.add(WeightRecord.fromJson(row));
-                    }
-                }
-                // Return parsed list to the UI layer
-                cb.onSuccess(out);
-            }
+        // Prefer the compact binary page; JSON stays acceptable as a fallback
+        Request req = new Request.Builder()
+                .url(url)
+                .header("Accept", WeightsCodec.MEDIA_TYPE + ", application/json;q=0.5")
+                .get()
+                .build();
+
+        // GET, then decode whichever representation the server chose
+        get(ticket, req, weightsParser, new ResultCallback<List<WeightRecord>>() {
+            @Override public void onSuccess(List<WeightRecord> items) { cb.onSuccess(items); }
             @Override public void onError(int code, String message) { cb.onError(code, message); }
         });
     }
+
+    /// Binary pages decode straight into records; JSON maps "items" through WeightRecord.fromJson.
+    /// Read-only: one list goes to every single-flight waiter and into the breaker fallback.
+    private final BodyParser<List<WeightRecord>> weightsParser = (req, type, body) -> {
+        if (WeightsCodec.matches(type)) return Collections.unmodifiableList(WeightsCodec.decode(body));
+
+        JSONArray arr = jsonParser.parse(req, type, body).optJSONArray("items");
+        List<WeightRecord> out = new ArrayList<>();
+        if (arr != null) {
+            for (int i = 0; i < arr.length(); i++) {
+                JSONObject row = arr.optJSONObject(i);
+                if (row != null) out.add(WeightRecord.fromJson(row));
+            }
+        }
+        return Collections.unmodifiableList(out);
+    };
     /// Convenience: first page
     public void listWeights(WeightsCallback cb) { listWeights(100, 0, cb); }
 
@@ -232,6 +506,15 @@ public final class Api {
             @androidx.annotation.Nullable Double newValue,
             @androidx.annotation.Nullable String isoRecordedAtUtc,
             UpdateWeightCallback cb
+    ) {
+        updateWeight(null, id, newValue, isoRecordedAtUtc, cb);
+    }
+    private void updateWeight(
+            @androidx.annotation.Nullable Ticket ticket,
+            long id,
+            @androidx.annotation.Nullable Double newValue,
+            @androidx.annotation.Nullable String isoRecordedAtUtc,
+            UpdateWeightCallback cb
     ) {
         // Build a payload only with provided fields
         final JSONObject payload = new JSONObject();
@@ -258,7 +541,7 @@ public final class Api {
         }
 
         // Send PUT and interpret the server’s updated-count as a boolean
-        putJson("/weights/" + id, payload, new JsonCallback() {
+        putJson(ticket, "/weights/" + id, payload, new JsonCallback() {
             @Override public void onSuccess(JSONObject json) {
                 cb.onSuccess(json.optInt("updated", 0) > 0);
             }
@@ -284,31 +567,15 @@ public final class Api {
         void onSuccess(boolean deleted);
         void onError(int code, String message);
     }
-    public void deleteWeight(long id, DeleteWeightCallback cb) {
-        // Build a DELETE request to the row resource
-        Request req = new Request.Builder()
-                .url(BASE + "/weights/" + id)
-                .delete()
-                .build();
-
-        // Execute and convert the “deleted” count to a boolean
-        http.newCall(req).enqueue(new okhttp3.Callback() {
-            @Override public void onFailure(okhttp3.Call call, java.io.IOException e) {
-                cb.onError(0, e.getMessage());
-            }
-            @Override public void onResponse(okhttp3.Call call, okhttp3.Response res) throws java.io.IOException {
-                // Read once, check status, then parse
-                String body = res.body() != null ? res.body().string() : "";
-                if (!res.isSuccessful()) { cb.onError(res.code(), body); return; }
-
-                try {
-                    org.json.JSONObject j = new org.json.JSONObject(body);
-                    // deleted>0 → a row was removed; 0 → nothing matched
-                    cb.onSuccess(j.optInt("deleted", 0) > 0);
-                } catch (org.json.JSONException ex) {
-                    cb.onError(res.code(), "Parse error: " + ex.getMessage());
-                }
+    public void deleteWeight(long id, DeleteWeightCallback cb) { deleteWeight(null, id, cb); }
+    private void deleteWeight(@androidx.annotation.Nullable Ticket ticket, long id, DeleteWeightCallback cb) {
+        // DELETE the row resource and convert the “deleted” count to a boolean
+        deleteJson(ticket, "/weights/" + id, new JsonCallback() {
+            @Override public void onSuccess(JSONObject json) {
+                // deleted>0 → a row was removed; 0 → nothing matched
+                cb.onSuccess(json.optInt("deleted", 0) > 0);
             }
+            @Override public void onError(int code, String message) { cb.onError(code, message); }
         });
     }
 
@@ -317,9 +584,10 @@ public final class Api {
         void onSuccess(@androidx.annotation.Nullable GoalRecord goal);
         void onError(int code, String message);
     }
-    public void getGoal(GetGoalCallback cb) {
+    public void getGoal(GetGoalCallback cb) { getGoal(null, cb); }
+    private void getGoal(@androidx.annotation.Nullable Ticket ticket, GetGoalCallback cb) {
         // GET goal and map: missing → null, present → GoalRecord
-        getJson(HttpUrl.parse(BASE + "/goal"), new JsonCallback() {
+        getJson(ticket, HttpUrl.parse(base + "/goal"), new JsonCallback() {
             @Override public void onSuccess(JSONObject json) {
                 JSONObject g = json.optJSONObject("goal");
                 if (g == null || g == JSONObject.NULL) {
@@ -341,6 +609,12 @@ public final class Api {
     public void putGoal(double value,
                         @androidx.annotation.Nullable String isoAt,
                         PutGoalCallback cb) {
+        putGoal(null, value, isoAt, cb);
+    }
+    private void putGoal(@androidx.annotation.Nullable Ticket ticket,
+                         double value,
+                         @androidx.annotation.Nullable String isoAt,
+                         PutGoalCallback cb) {
         // Build payload with required value and optional ISO timestamp
         JSONObject payload = new JSONObject();
         try {
@@ -354,7 +628,7 @@ public final class Api {
         }
 
         // PUT and just confirm success (caller doesn’t need a body)
-        putJson("/goal", payload, new JsonCallback() {
+        putJson(ticket, "/goal", payload, new JsonCallback() {
             @Override public void onSuccess(JSONObject json) { cb.onSuccess(); }
             @Override public void onError(int code, String message) { cb.onError(code, message); }
         });
@@ -367,25 +641,134 @@ public final class Api {
         void onSuccess(boolean deleted);
         void onError(int code, String message);
     }
-    public void deleteGoal(DeleteGoalCallback cb) {
-        // Build a DELETE request to the singleton goal resource
-        Request req = new Request.Builder().url(BASE + "/goal").delete().build();
+    public void deleteGoal(DeleteGoalCallback cb) { deleteGoal(null, cb); }
+    private void deleteGoal(@androidx.annotation.Nullable Ticket ticket, DeleteGoalCallback cb) {
+        // DELETE the singleton goal resource and convert “deleted” count to boolean
+        deleteJson(ticket, "/goal", new JsonCallback() {
+            @Override public void onSuccess(JSONObject json) { cb.onSuccess(json.optInt("deleted", 0) > 0); }
+            @Override public void onError(int code, String message) { cb.onError(code, message); }
+        });
+    }
+    // -------------------------
+    // Future-returning variants
+    // -------------------------
+    // Each completes with the same value the callback variant would deliver, or exceptionally
+    // with ApiException(code, message). Cancelling the future, or letting it time out, cancels
+    // the network call behind it (a shared single-flight GET only once no one else is waiting).
+
+    /// Default ceiling for the future variants; callers may apply a tighter orTimeout()
+    public static final long FUTURE_TIMEOUT_MS = 30_000;
+
+    public CompletableFuture<Boolean> healthAsync() {
+        return future((t, f) -> health(t, new HealthCallback() {
+            @Override public void onSuccess(boolean ok) { f.complete(ok); }
+            @Override public void onError(int code, String message) { f.completeExceptionally(new ApiException(code, message)); }
+        }));
+    }
 
-        // Execute and convert “deleted” count to boolean
-        http.newCall(req).enqueue(new Callback() {
-            @Override public void onFailure(Call call, IOException e) { cb.onError(0, e.getMessage()); }
-            @Override public void onResponse(Call call, Response res) throws IOException {
-                // Read once, check status, then parse
-                String body = res.body() != null ? res.body().string() : "";
-                if (!res.isSuccessful()) { cb.onError(res.code(), body); return; }
+    public CompletableFuture<Long> createWeightAsync(double value, @androidx.annotation.Nullable String isoRecordedAtUtc) {
+        return future((t, f) -> createWeight(t, value, isoRecordedAtUtc, new CreateWeightCallback() {
+            @Override public void onSuccess(long id) { f.complete(id); }
+            @Override public void onError(int code, String message) { f.completeExceptionally(new ApiException(code, message)); }
+        }));
+    }
 
-                try {
-                    JSONObject j = new JSONObject(body);
-                    cb.onSuccess(j.optInt("deleted", 0) > 0);
-                } catch (JSONException ex) {
-                    cb.onError(res.code(), "Parse error: " + ex.getMessage());
-                }
-            }
+    public CompletableFuture<List<WeightRecord>> listWeightsAsync(int limit, int offset) {
+        return listWeightsAsync(limit, offset, null);
+    }
+    /// Same, counting the call's bytes into `meter` (nothing if it joins someone else's GET)
+    public CompletableFuture<List<WeightRecord>> listWeightsAsync(int limit, int offset,
+                                                                  @androidx.annotation.Nullable NetTimings.Meter meter) {
+        return future(meter, (t, f) -> listWeights(t, limit, offset, new WeightsCallback() {
+            @Override public void onSuccess(List<WeightRecord> items) { f.complete(items); }
+            @Override public void onError(int code, String message) { f.completeExceptionally(new ApiException(code, message)); }
+        }));
+    }
+    public CompletableFuture<List<WeightRecord>> listWeightsAsync() { return listWeightsAsync(100, 0); }
+
+    public CompletableFuture<Boolean> updateWeightAsync(long id,
+                                                        @androidx.annotation.Nullable Double newValue,
+                                                        @androidx.annotation.Nullable String isoRecordedAtUtc) {
+        return future((t, f) -> updateWeight(t, id, newValue, isoRecordedAtUtc, new UpdateWeightCallback() {
+            @Override public void onSuccess(boolean updated) { f.complete(updated); }
+            @Override public void onError(int code, String message) { f.completeExceptionally(new ApiException(code, message)); }
+        }));
+    }
+
+    public CompletableFuture<Boolean> deleteWeightAsync(long id) {
+        return future((t, f) -> deleteWeight(t, id, new DeleteWeightCallback() {
+            @Override public void onSuccess(boolean deleted) { f.complete(deleted); }
+            @Override public void onError(int code, String message) { f.completeExceptionally(new ApiException(code, message)); }
+        }));
+    }
+
+    /// Completes with null when no goal is set
+    public CompletableFuture<GoalRecord> getGoalAsync() { return getGoalAsync(null); }
+    public CompletableFuture<GoalRecord> getGoalAsync(@androidx.annotation.Nullable NetTimings.Meter meter) {
+        return future(meter, (t, f) -> getGoal(t, new GetGoalCallback() {
+            @Override public void onSuccess(@androidx.annotation.Nullable GoalRecord goal) { f.complete(goal); }
+            @Override public void onError(int code, String message) { f.completeExceptionally(new ApiException(code, message)); }
+        }));
+    }
+
+    public CompletableFuture<Void> putGoalAsync(double value, @androidx.annotation.Nullable String isoAt) {
+        return future((t, f) -> putGoal(t, value, isoAt, new PutGoalCallback() {
+            @Override public void onSuccess() { f.complete(null); }
+            @Override public void onError(int code, String message) { f.completeExceptionally(new ApiException(code, message)); }
+        }));
+    }
+
+    public CompletableFuture<Boolean> deleteGoalAsync() {
+        return future((t, f) -> deleteGoal(t, new DeleteGoalCallback() {
+            @Override public void onSuccess(boolean deleted) { f.complete(deleted); }
+            @Override public void onError(int code, String message) { f.completeExceptionally(new ApiException(code, message)); }
+        }));
+    }
+
+    /// Start a call bound to a fresh ticket; cancel/timeout of the future cancels the ticket
+    private <T> CompletableFuture<T> future(BiConsumer<Ticket, CompletableFuture<T>> start) {
+        return future(null, start);
+    }
+
+    private <T> CompletableFuture<T> future(@androidx.annotation.Nullable NetTimings.Meter meter,
+                                            BiConsumer<Ticket, CompletableFuture<T>> start) {
+        Ticket ticket = new Ticket(meter);
+        CompletableFuture<T> f = new CompletableFuture<>();
+        f.whenComplete((v, ex) -> {
+            if (ex instanceof CancellationException || ex instanceof TimeoutException) ticket.cancel();
         });
+        start.accept(ticket, f);
+        return f.orTimeout(FUTURE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /// Cancellation handle for one logical call (across retries and single-flight)
+    static final class Ticket {
+        /// Byte counter for this call's requests, if the caller asked for one
+        final @androidx.annotation.Nullable NetTimings.Meter meter;
+        private boolean cancelled;
+        private Runnable onCancel;
+
+        Ticket(@androidx.annotation.Nullable NetTimings.Meter meter) { this.meter = meter; }
+
+        /// Replace the cancel hook (runs immediately if already cancelled)
+        void onCancel(Runnable hook) {
+            synchronized (this) {
+                if (!cancelled) { onCancel = hook; return; }
+            }
+            hook.run();
+        }
+
+        void cancel() {
+            Runnable hook;
+            synchronized (this) {
+                if (cancelled) return;
+                cancelled = true;
+                hook = onCancel;
+                onCancel = null;
+            }
+            if (hook != null) hook.run();
+        }
+
+        synchronized boolean isCancelled() { return cancelled; }
     }
 }
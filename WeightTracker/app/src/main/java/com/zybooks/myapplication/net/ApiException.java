@@ -0,0 +1,14 @@
+package com.zybooks.myapplication.net;
+
+/// ApiException - failure of an Api future; same (code, message) pair the callbacks receive.
+/// code is the HTTP status, or 0 for network/IO errors with no status.
+public class ApiException extends Exception {
+    private final int code;
+
+    public ApiException(int code, String message) {
+        super(message);
+        this.code = code;
+    }
+
+    public int getCode() { return code; }
+}
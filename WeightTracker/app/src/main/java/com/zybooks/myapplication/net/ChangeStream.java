@@ -0,0 +1,223 @@
+package com.zybooks.myapplication.net;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.zybooks.myapplication.DatabaseHelper;
+import com.zybooks.myapplication.models.GoalRecord;
+import com.zybooks.myapplication.models.WeightRecord;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.BufferedSource;
+
+/**
+ * ChangeStream
+ * - Subscribes to GET /events (Server-Sent Events) for the signed-in user
+ * - Applies each change to the local cache on DatabaseHelper.CACHE_IO, then notifies the listener
+ * - Reconnects with jittered exponential backoff, resuming from Last-Event-ID
+ * - "resync" from the server (too far behind / server restarted) asks the listener to refetch
+ */
+public final class ChangeStream {
+    private static final String TAG = "ChangeStream";
+    private static final long MIN_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 60_000;
+
+    /// What the screen hears about; called on DatabaseHelper.CACHE_IO after the cache is updated
+    /// (onResync() from the server is called on the stream thread).
+    /// `id` is the weight row for weight.* events (lets a screen skip echoes of its own edits), else -1.
+    public interface Listener {
+        void onCacheChanged(String event, long id);
+        void onResync();
+    }
+
+    private final Context app;
+    private final String base;
+    private final OkHttpClient http;
+
+    private volatile @Nullable Listener listener;
+    /// Bumped by every start()/stop(); a worker only runs while the generation it was started with is current
+    private volatile int generation;
+    private volatile @Nullable Call current;
+    private @Nullable Thread worker;
+    private @Nullable String lastEventId;   // only touched by the live worker thread
+
+    ChangeStream(Context ctx, String base, OkHttpClient http) {
+        this.app = ctx.getApplicationContext();
+        this.base = base;
+        this.http = http;
+    }
+
+    public void setListener(@Nullable Listener l) { listener = l; }
+
+    /// Open the stream (no-op if already running)
+    public synchronized void start() {
+        if (worker != null) return;
+        final int gen = ++generation;
+        worker = new Thread(() -> loop(gen), "change-stream");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /// Close the stream; the last event id is kept so the next start() resumes from it
+    public synchronized void stop() {
+        generation++;
+        Call c = current;
+        if (c != null) c.cancel();
+        if (worker != null) worker.interrupt();
+        worker = null;
+    }
+
+    // -------------------------
+    // Connection loop
+    // -------------------------
+
+    /// A quick stop()/start() can leave the old worker mid-read; it exits once `gen` is stale
+    private boolean live(int gen) { return generation == gen; }
+
+    private void loop(int gen) {
+        try {
+            long backoff = MIN_BACKOFF_MS;
+            while (live(gen)) {
+                try {
+                    if (connectOnce(gen)) backoff = MIN_BACKOFF_MS; // got data: start over gently
+                } catch (IOException | RuntimeException e) {
+                    if (!live(gen)) break;
+                    Log.w(TAG, "Stream dropped: " + e);
+                }
+                if (!live(gen)) break;
+
+                // Jittered exponential backoff before reconnecting
+                try {
+                    Thread.sleep(backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1));
+                } catch (InterruptedException e) {
+                    break;
+                }
+                backoff = Math.min(MAX_BACKOFF_MS, backoff * 2);
+            }
+        } finally {
+            // However this worker ends, a current one must not leave start() thinking it still runs
+            synchronized (this) {
+                if (live(gen)) worker = null;
+            }
+        }
+    }
+
+    /// One connection: read events until the server closes it. Returns true if it was established.
+    private boolean connectOnce(int gen) throws IOException {
+        Request.Builder rb = new Request.Builder()
+                .url(base + "/events")
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) rb.header("Last-Event-ID", lastEventId);
+
+        Call call = http.newCall(rb.build());
+        synchronized (this) {
+            if (!live(gen)) return false;   // stopped before the call existed: stop() couldn't cancel it
+            current = call;
+        }
+        try (Response res = call.execute()) {
+            if (!res.isSuccessful() || res.body() == null) {
+                throw new IOException("HTTP " + res.code());
+            }
+            read(gen, res.body().source());
+            return true;
+        } finally {
+            synchronized (this) {
+                if (current == call) current = null;
+            }
+        }
+    }
+
+    /// Minimal SSE parser: "event:", "data:", "id:" fields; blank line dispatches; ":" is a comment
+    private void read(int gen, BufferedSource src) throws IOException {
+        String event = "message", id = null;
+        StringBuilder data = new StringBuilder();
+        String line;
+        while (live(gen) && (line = src.readUtf8Line()) != null) {
+            if (line.isEmpty()) {
+                if (!live(gen)) break;   // don't apply or advance lastEventId for a stale worker
+                if (data.length() > 0 || !"message".equals(event)) dispatch(event, data.toString());
+                if (id != null) lastEventId = id;
+                event = "message"; id = null; data.setLength(0);
+            } else if (line.startsWith(":")) {
+                // heartbeat / comment
+            } else if (line.startsWith("event:")) {
+                event = line.substring(6).trim();
+            } else if (line.startsWith("data:")) {
+                if (data.length() > 0) data.append('\n');
+                data.append(line.substring(5).trim());
+            } else if (line.startsWith("id:")) {
+                id = line.substring(3).trim();
+            }
+        }
+    }
+
+    // -------------------------
+    // Applying changes
+    // -------------------------
+
+    private void dispatch(String event, String data) {
+        if ("resync".equals(event)) {
+            Listener l = listener;
+            if (l != null) l.onResync();
+            return;
+        }
+
+        final JSONObject json;
+        try {
+            json = data.isEmpty() ? new JSONObject() : new JSONObject(data);
+        } catch (JSONException e) {
+            Log.w(TAG, "Bad event " + event + ": " + e.getMessage());
+            return;
+        }
+        // Same cache thread as every other writer: a push can't interleave with a first-page
+        // replace or an optimistic edit, and the listener hears of it once it's written
+        DatabaseHelper.CACHE_IO.execute(() -> {
+            Listener l = listener;
+            try {
+                if (!apply(event, json)) return;
+            } catch (RuntimeException e) {
+                // Unparseable row or a failed cache write: skip the event, but the cache may now be
+                // missing a change, so have the screen refetch rather than trust it
+                Log.w(TAG, "Couldn't apply " + event + ": " + e);
+                if (l != null) l.onResync();
+                return;
+            }
+            long id = event.startsWith("weight.") ? json.optLong("id", -1) : -1;
+            if (l != null) l.onCacheChanged(event, id);
+        });
+    }
+
+    /// Write one change into the cache. Returns false for events we don't know.
+    private boolean apply(String event, JSONObject json) {
+        DatabaseHelper db = new DatabaseHelper(app);
+        switch (event) {
+            case "weight.created":
+            case "weight.updated":
+                db.upsertWeight(WeightRecord.fromJson(json));
+                return true;
+            case "weight.deleted":
+                db.deleteWeight(json.optLong("id", -1));
+                return true;
+            case "goal.updated":
+                JSONObject g = json.optJSONObject("goal");
+                if (g == null) db.clearGoal(); else db.setGoal(GoalRecord.fromJson(g));
+                return true;
+            case "goal.deleted":
+                db.clearGoal();
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.zybooks.myapplication.net;
+
+import java.util.function.LongSupplier;
+
+/**
+ * CircuitBreaker
+ * - CLOSED: requests flow; consecutive transient failures are counted
+ * - OPEN: after `failureThreshold` failures, requests fail fast for `openMillis`
+ * - HALF_OPEN: after the cool-down, a single probe is let through;
+ *   success closes the breaker, failure re-opens it
+ */
+final class CircuitBreaker {
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier clock;   // nanoTime
+
+    private State state = State.CLOSED;
+    private int failures = 0;
+    private long openedAt = 0;
+    private boolean probeInFlight = false;
+
+    CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::nanoTime);
+    }
+
+    /// Tests drive the cool-down with a fake nanosecond clock
+    CircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openMillis * 1_000_000L;
+        this.clock = clock;
+    }
+
+    /// Defaults: open after 5 consecutive failures, probe again after 15s
+    static CircuitBreaker defaults() { return new CircuitBreaker(5, 15_000); }
+
+    /// May a request go to the network right now? In HALF_OPEN only one probe is allowed.
+    synchronized boolean allowRequest() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                // A probe that never reported back (e.g. cancelled) expires after one cool-down
+                if (probeInFlight && clock.getAsLong() - openedAt < openNanos) return false;
+                probeInFlight = true;
+                openedAt = clock.getAsLong();
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /// The backend answered (any non-transient status)
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+        probeInFlight = false;
+    }
+
+    /// Network failure, timeout or 5xx
+    synchronized void onFailure() {
+        failures++;
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+            probeInFlight = false;
+        }
+    }
+
+    /// True while requests are being short-circuited
+    synchronized boolean isOpen() {
+        return state != State.CLOSED;
+    }
+
+    synchronized State state() { return state; }
+}
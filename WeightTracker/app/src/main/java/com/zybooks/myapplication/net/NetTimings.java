@@ -0,0 +1,205 @@
+package com.zybooks.myapplication.net;
+
+import android.util.Log;
+
+import com.zybooks.myapplication.LatencyHistogram;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+
+/**
+ * NetTimings
+ * - Per-endpoint latency histograms, one per phase of an Api call
+ * - Network phases (DNS, connect, TLS, time to first byte, body) come from an OkHttp EventListener
+ * - AUTH is recorded by AuthInterceptor, PARSE by Api
+ * - Running totals of body bytes sent/received; a Meter tagged on a request counts that
+ *   request's bytes on their own (per-job accounting, e.g. SyncWorker)
+ * - dump() for logcat, toJson() for export
+ */
+public final class NetTimings {
+    private static final String TAG = "NetTimings";
+
+    /// Phases of one call, in the order they happen
+    public enum Phase { AUTH, DNS, CONNECT, TLS, TTFB, BODY, PARSE, TOTAL }
+
+    /// Histogram bucket upper bounds (ms); one extra overflow bucket past the last bound
+    private static final long[] BOUNDS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+
+    /// endpoint ("GET /weights") -> one histogram per phase
+    private final Map<String, LatencyHistogram[]> byEndpoint = new ConcurrentHashMap<>();
+
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    // -------------------------
+    // Recording
+    // -------------------------
+
+    /// Record one sample for an endpoint/phase. Negative durations are ignored.
+    public void record(String endpoint, Phase phase, long nanos) {
+        if (nanos < 0) return;
+        LatencyHistogram[] hs = byEndpoint.computeIfAbsent(endpoint, k -> newHistograms());
+        hs[phase.ordinal()].record(nanos);
+    }
+
+    /// Stable endpoint key: method + path with numeric ids collapsed ("DELETE /weights/:id")
+    public static String endpointOf(Request req) {
+        StringBuilder sb = new StringBuilder(req.method()).append(' ');
+        for (String seg : req.url().pathSegments()) {
+            sb.append('/');
+            sb.append(isNumeric(seg) ? ":id" : seg);
+        }
+        return sb.toString();
+    }
+
+    /// Request/response body bytes since the client was built (never reset; take differences)
+    public long bytesSent() { return bytesSent.get(); }
+    public long bytesReceived() { return bytesReceived.get(); }
+
+    /// Body bytes of the calls it is tagged on (Request.tag(Meter.class, meter)), retries included
+    public static final class Meter {
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong received = new AtomicLong();
+
+        public long bytesSent() { return sent.get(); }
+        public long bytesReceived() { return received.get(); }
+        public long bytes() { return sent.get() + received.get(); }
+    }
+
+    /// Drop all samples (e.g. before a comparison run)
+    public void reset() { byEndpoint.clear(); }
+
+    /// EventListener factory to hand to OkHttpClient.Builder
+    public EventListener.Factory listenerFactory() {
+        return call -> new CallTimer(endpointOf(call.request()));
+    }
+
+    // -------------------------
+    // Export
+    // -------------------------
+
+    /// Human-readable table: one line per endpoint/phase with count, mean, p50, p90, p99, max (ms)
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, LatencyHistogram[]> e : new TreeMap<>(byEndpoint).entrySet()) {
+            sb.append(e.getKey()).append('\n');
+            for (Phase p : Phase.values()) {
+                LatencyHistogram h = e.getValue()[p.ordinal()];
+                long n = h.count();
+                if (n == 0) continue;
+                sb.append(String.format(Locale.US,
+                        "  %-7s n=%-5d mean=%.1f p50<=%d p90<=%d p99<=%d max=%.1f%n",
+                        p.name(), n, h.meanMs(), h.percentileMs(0.50),
+                        h.percentileMs(0.90), h.percentileMs(0.99), h.maxMs()));
+            }
+        }
+        return sb.toString();
+    }
+
+    /// Write dump() to logcat
+    public void logDump() {
+        for (String line : dump().split("\n")) Log.i(TAG, line);
+    }
+
+    /// Machine-readable export: { endpoint: { phase: { count, mean_ms, max_ms, p50_ms, ..., buckets } } }
+    public JSONObject toJson() throws JSONException {
+        JSONObject out = new JSONObject();
+        for (Map.Entry<String, LatencyHistogram[]> e : new TreeMap<>(byEndpoint).entrySet()) {
+            JSONObject phases = new JSONObject();
+            for (Phase p : Phase.values()) {
+                LatencyHistogram h = e.getValue()[p.ordinal()];
+                if (h.count() == 0) continue;
+                phases.put(p.name().toLowerCase(Locale.US), h.toJson());
+            }
+            out.put(e.getKey(), phases);
+        }
+        return out;
+    }
+
+    // -------------------------
+    // Internals
+    // -------------------------
+
+    private static LatencyHistogram[] newHistograms() {
+        LatencyHistogram[] hs = new LatencyHistogram[Phase.values().length];
+        for (int i = 0; i < hs.length; i++) hs[i] = new LatencyHistogram(BOUNDS_MS);
+        return hs;
+    }
+
+    private static boolean isNumeric(String s) {
+        if (s.isEmpty()) return false;
+        for (int i = 0; i < s.length(); i++) {
+            if (!Character.isDigit(s.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    /// One listener per call; turns OkHttp event pairs into phase durations
+    private final class CallTimer extends EventListener {
+        private final String endpoint;
+        private long callStart, dnsStart, connectStart, secureStart, requestEnd, bodyStart;
+
+        CallTimer(String endpoint) { this.endpoint = endpoint; }
+
+        @Override public void callStart(Call call) { callStart = System.nanoTime(); }
+
+        @Override public void dnsStart(Call call, String domainName) { dnsStart = System.nanoTime(); }
+        @Override public void dnsEnd(Call call, String domainName, List<InetAddress> list) {
+            record(endpoint, Phase.DNS, System.nanoTime() - dnsStart);
+        }
+
+        @Override public void connectStart(Call call, InetSocketAddress addr, Proxy proxy) {
+            connectStart = System.nanoTime();
+        }
+        @Override public void secureConnectStart(Call call) { secureStart = System.nanoTime(); }
+        @Override public void secureConnectEnd(Call call, Handshake handshake) {
+            record(endpoint, Phase.TLS, System.nanoTime() - secureStart);
+        }
+        @Override public void connectEnd(Call call, InetSocketAddress addr, Proxy proxy, Protocol protocol) {
+            // TCP + TLS; TLS is also reported on its own
+            record(endpoint, Phase.CONNECT, System.nanoTime() - connectStart);
+        }
+
+        // Time to first byte is measured from the last byte we sent
+        @Override public void requestHeadersEnd(Call call, Request request) { requestEnd = System.nanoTime(); }
+        @Override public void requestBodyEnd(Call call, long byteCount) {
+            requestEnd = System.nanoTime();
+            bytesSent.addAndGet(byteCount);
+            Meter m = call.request().tag(Meter.class);
+            if (m != null) m.sent.addAndGet(byteCount);
+        }
+        @Override public void responseHeadersStart(Call call) {
+            if (requestEnd != 0) record(endpoint, Phase.TTFB, System.nanoTime() - requestEnd);
+        }
+
+        @Override public void responseBodyStart(Call call) { bodyStart = System.nanoTime(); }
+        @Override public void responseBodyEnd(Call call, long byteCount) {
+            record(endpoint, Phase.BODY, System.nanoTime() - bodyStart);
+            bytesReceived.addAndGet(byteCount);
+            Meter m = call.request().tag(Meter.class);
+            if (m != null) m.received.addAndGet(byteCount);
+        }
+
+        @Override public void callEnd(Call call) { record(endpoint, Phase.TOTAL, System.nanoTime() - callStart); }
+        @Override public void callFailed(Call call, IOException ioe) {
+            record(endpoint, Phase.TOTAL, System.nanoTime() - callStart);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.zybooks.myapplication.net;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * RetryPolicy
+ * - Decides whether a failed attempt is worth another try
+ * - Only idempotent requests are retried (GET/PUT/DELETE, never POST)
+ * - Retries network failures/timeouts (code 0), 408, 429 and 5xx
+ * - Bounded exponential backoff with full jitter between attempts
+ */
+final class RetryPolicy {
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    RetryPolicy(int maxAttempts, long baseDelayMs, long maxDelayMs) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    /// Defaults: 3 attempts total, 250ms base, capped at 4s
+    static RetryPolicy defaults() { return new RetryPolicy(3, 250, 4000); }
+
+    /// Should attempt number `attempt` (1-based) that ended with `code` be retried?
+    boolean shouldRetry(boolean idempotent, int attempt, int code) {
+        if (!idempotent || attempt >= maxAttempts) return false;
+        return isTransient(code);
+    }
+
+    /// Network failure (no status), request timeout, throttled, or server-side error
+    static boolean isTransient(int code) {
+        return code == 0 || code == 408 || code == 429 || code >= 500;
+    }
+
+    /// Delay before the attempt after `attempt`: uniform in [0, min(max, base * 2^(attempt-1))]
+    long delayMs(int attempt) {
+        long ceiling = baseDelayMs << Math.min(attempt - 1, 16);
+        ceiling = Math.min(maxDelayMs, ceiling);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
@@ -0,0 +1,35 @@
+package com.zybooks.myapplication.net;
+
+import androidx.annotation.Nullable;
+
+import okhttp3.Authenticator;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+
+// Called by OkHttp when the API answers 401: refresh the token once (shared with any
+// other 401s arriving at the same time) and replay the request with the new header.
+final class TokenAuthenticator implements Authenticator {
+    private static final String BEARER = "Bearer ";
+    private final TokenSource tokens;
+
+    TokenAuthenticator(TokenSource tokens) {
+        this.tokens = tokens;
+    }
+
+    @Override
+    public @Nullable Request authenticate(@Nullable Route route, Response response) {
+        // Already replayed once: give the 401 to the caller
+        if (response.priorResponse() != null) return null;
+
+        String sent = response.request().header("Authorization");
+        String rejected = sent != null && sent.startsWith(BEARER) ? sent.substring(BEARER.length()) : null;
+
+        TokenManager.Token t = tokens.afterUnauthorized(rejected);
+        if (t == null || t.accessToken.equals(rejected)) return null; // nothing new to try
+
+        return response.request().newBuilder()
+                .header("Authorization", t.header)
+                .build();
+    }
+}
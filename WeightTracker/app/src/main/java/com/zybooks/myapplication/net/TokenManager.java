@@ -0,0 +1,220 @@
+package com.zybooks.myapplication.net;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.zybooks.myapplication.auth.AuthStore;
+
+import net.openid.appauth.AuthState;
+import net.openid.appauth.AuthorizationService;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * TokenManager
+ * - Owns the access token for every request (AuthInterceptor) and 401 replay (TokenAuthenticator)
+ * - Hot path: immutable in-memory Token snapshot, no I/O, no locks
+ * - Encrypted AuthStore is read on cold start / after someone else wrote it; writes of
+ *   unchanged token material are dropped by AuthStore itself
+ * - Refresh is single-flight: concurrent callers share one token-endpoint round trip
+ * - A background timer refreshes ahead of expiry (jittered, retried with backoff), so
+ *   foreground requests normally find a valid token and never wait on the token endpoint
+ */
+final class TokenManager implements TokenSource, Closeable {
+    private static final String TAG = "TokenManager";
+    private static final long TIMEOUT_SECONDS = 15; // refresh wait ceiling
+    private static final long EXPIRY_SKEW_MS = 60_000; // same margin AppAuth refreshes at
+
+    // Background refresh: fires LEAD (minus up to JITTER) before expiry, i.e. before EXPIRY_SKEW
+    private static final long REFRESH_LEAD_MS = 120_000;
+    private static final long REFRESH_JITTER_MS = 30_000;
+    private static final long RETRY_MIN_MS = 5_000;
+    private static final long RETRY_MAX_MS = 60_000;
+
+    // AppAuth service used for token refresh / retrieval
+    private final AuthorizationService authService;
+
+    // Secure persistence of AuthState
+    private final AuthStore store;
+
+    // Hot path: immutable snapshot, swapped whole
+    private volatile @Nullable Token token;
+
+    // Slow path: decrypted AuthState and the AuthStore generation it came from (guarded by this)
+    private @Nullable AuthState state;
+    private long stateGeneration = -1;
+
+    // The one refresh in progress, if any (guarded by this)
+    private @Nullable CompletableFuture<Token> refreshing;
+
+    // Next background refresh (guarded by this)
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "token-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+    private @Nullable ScheduledFuture<?> scheduled;
+
+    /// What a request needs while the token is valid
+    static final class Token {
+        final String header;      // "Bearer <access token>"
+        final String accessToken;
+        final long expiresAtMs;
+        final long generation;    // AuthStore.generation() it belongs to
+
+        Token(String accessToken, long expiresAtMs, long generation) {
+            this.header = "Bearer " + accessToken;
+            this.accessToken = accessToken;
+            this.expiresAtMs = expiresAtMs;
+            this.generation = generation;
+        }
+    }
+
+    TokenManager(Context ctx) throws Exception {
+        Context app = ctx.getApplicationContext();
+        this.authService = new AuthorizationService(app);
+        this.store = new AuthStore(app);
+    }
+
+    /// Cached token if it is still good for a while and nobody has signed in/out since
+    @Nullable Token current() {
+        Token t = token;
+        if (t != null && t.generation == AuthStore.generation()
+                && System.currentTimeMillis() < t.expiresAtMs - EXPIRY_SKEW_MS) {
+            return t;
+        }
+        return null;
+    }
+
+    /// Valid token, refreshing (shared with concurrent callers) if needed; null if signed out/failed
+    @Override public @Nullable Token get() {
+        Token t = current();
+        return t != null ? t : await(refresh(false));
+    }
+
+    /// After a 401 for `rejected`: reuse a token someone else already got, otherwise force one refresh
+    @Override public @Nullable Token afterUnauthorized(@Nullable String rejected) {
+        Token t = current();
+        if (t != null && !t.accessToken.equals(rejected)) return t;
+        return await(refresh(true));
+    }
+
+    // -------------------------
+    // Refresh (single-flight)
+    // -------------------------
+
+    private CompletableFuture<Token> refresh(boolean force) {
+        CompletableFuture<Token> f;
+        synchronized (this) {
+            if (refreshing != null) return refreshing; // join the one already running
+            f = refreshing = new CompletableFuture<>();
+        }
+
+        // Read the latest auth state (may be null if user is signed out)
+        AuthState s = currentState();
+        if (s == null || !s.isAuthorized()) {
+            token = null;
+            finish(f, null);
+            return f;
+        }
+        if (force) s.setNeedsTokenRefresh(true);
+
+        // AppAuth calls back inline if the token is fresh, otherwise after the token request
+        s.performActionWithFreshTokens(authService, (accessToken, idToken, ex) -> {
+            if (ex != null) Log.w(TAG, "Token refresh failed: " + ex.getMessage());
+            finish(f, ex == null && accessToken != null ? remember(s, accessToken) : null);
+        });
+        return f;
+    }
+
+    private void finish(CompletableFuture<Token> f, @Nullable Token t) {
+        synchronized (this) {
+            if (refreshing == f) refreshing = null;
+        }
+        f.complete(t);
+    }
+
+    // -------------------------
+    // Background refresh
+    // -------------------------
+
+    // Plan the next refresh ahead of this token's expiry. The timer doesn't advance while the
+    // device sleeps, so a late wake-up simply falls back to the inline refresh in get().
+    private synchronized void scheduleAhead(Token t) {
+        if (t.expiresAtMs == Long.MAX_VALUE) return; // no expiry reported
+        long jitter = ThreadLocalRandom.current().nextLong(REFRESH_JITTER_MS + 1);
+        long delay = t.expiresAtMs - REFRESH_LEAD_MS - jitter - System.currentTimeMillis();
+        schedule(Math.max(0, delay), RETRY_MIN_MS);
+    }
+
+    private synchronized void schedule(long delayMs, long retryMs) {
+        if (scheduled != null) scheduled.cancel(false);
+        scheduled = scheduler.schedule(() -> refreshInBackground(retryMs), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Success reschedules through remember(); failure retries with jittered exponential
+    // backoff until the old token has expired (then requests refresh inline / via 401)
+    private void refreshInBackground(long retryMs) {
+        Token before = token;
+        if (await(refresh(true)) != null) return;
+
+        AuthState s = currentState();
+        if (s == null || !s.isAuthorized()) return; // signed out
+        if (before == null || System.currentTimeMillis() >= before.expiresAtMs) return;
+
+        long wait = retryMs / 2 + ThreadLocalRandom.current().nextLong(retryMs / 2 + 1);
+        schedule(wait, Math.min(RETRY_MAX_MS, retryMs * 2));
+    }
+
+    // Blocks the calling (OkHttp) thread, but only one token request is ever outstanding
+    private @Nullable Token await(CompletableFuture<Token> f) {
+        try {
+            return f.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    // Decrypted state, re-read from AuthStore only when its generation moved
+    private synchronized @Nullable AuthState currentState() {
+        long gen = AuthStore.generation();
+        if (state == null || stateGeneration != gen) {
+            state = store.read();
+            stateGeneration = gen;
+        }
+        return state;
+    }
+
+    // Cache the token and hand the state to AuthStore, which persists it only if it changed
+    private synchronized Token remember(AuthState s, String accessToken) {
+        Token prev = token;
+        long before = AuthStore.generation();
+        // Persist any updated state (e.g., new refresh token)
+        try { store.write(s); } catch (Exception ignored) {}
+        if (s == state && stateGeneration == before) stateGeneration = AuthStore.generation(); // our own write
+        Long exp = s.getAccessTokenExpirationTime();
+        Token t = new Token(accessToken, exp != null ? exp : Long.MAX_VALUE, stateGeneration);
+        token = t;
+        if (prev == null || !prev.accessToken.equals(accessToken)) scheduleAhead(t);
+        return t;
+    }
+
+    // Destroy auth service
+    @Override public void close() {
+        scheduler.shutdownNow();
+        authService.dispose();
+    }
+}
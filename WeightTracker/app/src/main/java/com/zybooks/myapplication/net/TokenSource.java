@@ -0,0 +1,13 @@
+package com.zybooks.myapplication.net;
+
+import androidx.annotation.Nullable;
+
+/// Where AuthInterceptor and TokenAuthenticator get their tokens from.
+/// TokenManager in the app; the JVM load harness plugs in its own.
+interface TokenSource {
+    /// Valid token (may wait on a shared refresh); null if signed out or the refresh failed
+    @Nullable TokenManager.Token get();
+
+    /// After a 401 for `rejected`: a different token to replay with, or null to give up
+    @Nullable TokenManager.Token afterUnauthorized(@Nullable String rejected);
+}
@@ -0,0 +1,83 @@
+package com.zybooks.myapplication.net;
+
+import androidx.annotation.Nullable;
+
+import com.zybooks.myapplication.models.WeightRecord;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.MediaType;
+
+/**
+ * WeightsCodec
+ * - Decoder for the compact binary weights page served by GET /weights
+ *   when the client sends "Accept: application/vnd.weighttracker.weights-v1"
+ * - Mirror of RESTapi/api/src/wire.js (keep the two in sync)
+ *
+ * Layout (all integers are unsigned LEB128 varints; deltas are zig-zag encoded):
+ *   version        (1 byte, = 1)
+ *   count          (varint)
+ *   count × row:
+ *     Δid          (zig-zag varint, vs previous row; first row vs 0)
+ *     Δseconds     (zig-zag varint, epoch seconds UTC, vs previous row)
+ *     Δcenti       (zig-zag varint, value × 100, vs previous row)
+ */
+public final class WeightsCodec {
+    public static final String MEDIA_TYPE = "application/vnd.weighttracker.weights-v1";
+    private static final int VERSION = 1;
+
+    private WeightsCodec() {}
+
+    /// True if a response Content-Type is the binary weights page
+    public static boolean matches(@Nullable MediaType type) {
+        return type != null
+                && MEDIA_TYPE.equals(type.type() + "/" + type.subtype());
+    }
+
+    /// Decode a full page into records (newest-first order is preserved from the server)
+    public static List<WeightRecord> decode(byte[] buf) throws IOException {
+        Reader r = new Reader(buf);
+        int version = r.u8();
+        if (version != VERSION) throw new IOException("Unsupported weights format v" + version);
+
+        long count = r.varint();
+        if (count < 0 || count > buf.length) throw new IOException("Bad row count " + count);
+        List<WeightRecord> out = new ArrayList<>((int) count);
+
+        long id = 0, seconds = 0, centi = 0;
+        for (long i = 0; i < count; i++) {
+            id      += unzigzag(r.varint());
+            seconds += unzigzag(r.varint());
+            centi   += unzigzag(r.varint());
+            out.add(new WeightRecord(id, (int) centi, seconds * 1000));
+        }
+        return out;
+    }
+
+    private static long unzigzag(long n) { return (n >>> 1) ^ -(n & 1); }
+
+    /// Minimal cursor over the body bytes
+    private static final class Reader {
+        private final byte[] buf;
+        private int pos = 0;
+
+        Reader(byte[] buf) { this.buf = buf; }
+
+        int u8() throws IOException {
+            if (pos >= buf.length) throw new IOException("Truncated weights page");
+            return buf[pos++] & 0xFF;
+        }
+
+        long varint() throws IOException {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = u8();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return result;
+            }
+            throw new IOException("Malformed varint");
+        }
+    }
+}
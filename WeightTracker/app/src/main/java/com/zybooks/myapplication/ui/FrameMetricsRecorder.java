@@ -0,0 +1,282 @@
+package com.zybooks.myapplication.ui;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageInfo;
+import android.graphics.Color;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.util.Log;
+import android.view.FrameMetrics;
+import android.view.Gravity;
+import android.view.ViewGroup;
+import android.view.Window;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import androidx.annotation.Nullable;
+
+import com.zybooks.myapplication.LatencyHistogram;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FrameMetricsRecorder
+ * - Per-screen frame-duration histograms from Window.OnFrameMetricsAvailableListener
+ * - Each frame is tagged with what the screen was doing (scrolling, diffing, summary, loading)
+ *   and counted as over budget when it took longer than one refresh interval
+ * - Debug builds get a small live overlay; dump() for logcat, export() writes a JSON report
+ *   (with the app version) to compare releases
+ */
+public final class FrameMetricsRecorder {
+    private static final String TAG = "FrameMetrics";
+
+    /// What the screen was doing; when several apply, the first in this order wins
+    public enum State { SCROLLING, DIFFING, SUMMARY, LOADING, IDLE }
+
+    /// Frame-time bucket upper bounds (ms); one extra overflow bucket past the last bound
+    private static final long[] BOUNDS_MS = {4, 8, 12, 16, 20, 25, 33, 50, 100, 250, 700};
+
+    private static final Map<String, FrameMetricsRecorder> SCREENS = new ConcurrentHashMap<>();
+
+    // Listener callbacks arrive here, off the main thread
+    private static Handler metricsHandler;
+
+    private final String screen;
+    private final LatencyHistogram[] byState = new LatencyHistogram[State.values().length];
+
+    // State bookkeeping: counts per state (main thread), the states currently active, and
+    // every state seen since the last frame (cleared back to the active set per frame)
+    private final int[] active = new int[State.values().length];
+    private volatile int activeMask;
+    private final AtomicInteger seenMask = new AtomicInteger();
+
+    private @Nullable Window window;
+    private @Nullable Window.OnFrameMetricsAvailableListener listener;
+    private volatile long budgetNanos = 16_666_667L;
+
+    // Debug overlay
+    private @Nullable TextView overlay;
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final Runnable overlayTick = this::updateOverlay;
+
+    private FrameMetricsRecorder(String screen) {
+        this.screen = screen;
+        for (int i = 0; i < byState.length; i++) byState[i] = new LatencyHistogram(BOUNDS_MS);
+    }
+
+    /// One recorder per screen name, kept for the life of the process
+    public static FrameMetricsRecorder forScreen(String screen) {
+        return SCREENS.computeIfAbsent(screen, FrameMetricsRecorder::new);
+    }
+
+    // -------------------------
+    // Lifecycle (main thread)
+    // -------------------------
+
+    /// Start collecting for this Activity's window (call from onResume)
+    public void attach(Activity activity) {
+        detach();
+        window = activity.getWindow();
+        if (activity.getDisplay() != null) {
+            budgetNanos = (long) (1e9 / activity.getDisplay().getRefreshRate());
+        }
+        listener = (w, metrics, dropped) -> onFrame(metrics);
+        window.addOnFrameMetricsAvailableListener(listener, handler());
+
+        if (isDebuggable(activity)) showOverlay(activity);
+    }
+
+    /// Stop collecting (call from onPause)
+    public void detach() {
+        if (window != null && listener != null) {
+            window.removeOnFrameMetricsAvailableListener(listener);
+        }
+        window = null;
+        listener = null;
+        main.removeCallbacks(overlayTick);
+        if (overlay != null && overlay.getParent() instanceof ViewGroup) {
+            ((ViewGroup) overlay.getParent()).removeView(overlay);
+        }
+        overlay = null;
+    }
+
+    /// Something that spans frames started (loading, diffing, scrolling); pair with end()
+    public void begin(State s) {
+        active[s.ordinal()]++;
+        activeMask |= 1 << s.ordinal();
+        mark(s);
+    }
+
+    public void end(State s) {
+        if (active[s.ordinal()] > 0 && --active[s.ordinal()] == 0) {
+            activeMask &= ~(1 << s.ordinal());
+        }
+    }
+
+    /// Tag the current frame with one-off main-thread work (e.g. summary recomputation)
+    public void mark(State s) {
+        int bit = 1 << s.ordinal();
+        seenMask.getAndAccumulate(bit, (a, b) -> a | b);
+    }
+
+    // -------------------------
+    // Recording (metrics thread)
+    // -------------------------
+
+    private void onFrame(FrameMetrics m) {
+        if (m.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1) return; // window's first frame is always slow
+        long nanos = m.getMetric(FrameMetrics.TOTAL_DURATION);
+
+        // States seen since the previous frame, then start over from what's still active
+        int mask = seenMask.getAndSet(activeMask);
+        byState[tag(mask).ordinal()].record(nanos, nanos > budgetNanos);
+    }
+
+    private static State tag(int mask) {
+        for (State s : State.values()) if ((mask & (1 << s.ordinal())) != 0) return s;
+        return State.IDLE;
+    }
+
+    // -------------------------
+    // Export
+    // -------------------------
+
+    /// Drop all samples for this screen (e.g. before a comparison run)
+    public void reset() {
+        for (int i = 0; i < byState.length; i++) byState[i] = new LatencyHistogram(BOUNDS_MS);
+    }
+
+    /// One line per state: frames, over-budget %, mean, p50, p90, p99, max (ms)
+    public String dump() {
+        StringBuilder sb = new StringBuilder(screen).append('\n');
+        for (State s : State.values()) {
+            LatencyHistogram h = byState[s.ordinal()];
+            long n = h.count();
+            if (n == 0) continue;
+            sb.append(String.format(Locale.US,
+                    "  %-9s n=%-6d over=%.1f%% mean=%.1f p50<=%d p90<=%d p99<=%d max=%.1f%n",
+                    s.name(), n, 100.0 * h.overBudget() / n, h.meanMs(),
+                    h.percentileMs(0.50), h.percentileMs(0.90), h.percentileMs(0.99), h.maxMs()));
+        }
+        return sb.toString();
+    }
+
+    /// Write every screen's dump() to logcat
+    public static void logDumpAll() {
+        for (FrameMetricsRecorder r : new TreeMap<>(SCREENS).values()) {
+            for (String line : r.dump().split("\n")) Log.i(TAG, line);
+        }
+    }
+
+    /// { app: { version, build, device, sdk }, screens: { screen: { budget_ms, states: { state: {...} } } } }
+    public static JSONObject toJson(Context ctx) throws JSONException {
+        JSONObject app = new JSONObject();
+        try {
+            PackageInfo pi = ctx.getPackageManager().getPackageInfo(ctx.getPackageName(), 0);
+            app.put("version", pi.versionName);
+            app.put("build", pi.getLongVersionCode());
+        } catch (Exception ignored) {}
+        app.put("device", Build.MANUFACTURER + " " + Build.MODEL);
+        app.put("sdk", Build.VERSION.SDK_INT);
+
+        JSONObject screens = new JSONObject();
+        for (FrameMetricsRecorder r : new TreeMap<>(SCREENS).values()) {
+            JSONObject states = new JSONObject();
+            for (State s : State.values()) {
+                LatencyHistogram h = r.byState[s.ordinal()];
+                if (h.count() == 0) continue;
+                JSONObject j = h.toJson();
+                j.put("over_budget", h.overBudget());
+                states.put(s.name().toLowerCase(Locale.US), j);
+            }
+            JSONObject j = new JSONObject();
+            j.put("budget_ms", r.budgetNanos / 1e6);
+            j.put("states", states);
+            screens.put(r.screen, j);
+        }
+
+        JSONObject out = new JSONObject();
+        out.put("app", app);
+        out.put("screens", screens);
+        return out;
+    }
+
+    /// Write toJson() to files/frame-metrics-<epoch ms>.json and return the file
+    public static File export(Context ctx) throws IOException, JSONException {
+        File f = new File(ctx.getFilesDir(), "frame-metrics-" + System.currentTimeMillis() + ".json");
+        try (FileOutputStream out = new FileOutputStream(f)) {
+            out.write(toJson(ctx).toString(2).getBytes(StandardCharsets.UTF_8));
+        }
+        return f;
+    }
+
+    // -------------------------
+    // Debug overlay
+    // -------------------------
+
+    private void showOverlay(Activity activity) {
+        TextView tv = new TextView(activity);
+        tv.setTextSize(10);
+        tv.setTextColor(Color.WHITE);
+        tv.setBackgroundColor(Color.argb(160, 0, 0, 0));
+        tv.setPadding(8, 4, 8, 4);
+        FrameLayout.LayoutParams lp = new FrameLayout.LayoutParams(
+                ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT,
+                Gravity.BOTTOM | Gravity.END);
+        ((ViewGroup) activity.getWindow().getDecorView()).addView(tv, lp);
+        overlay = tv;
+        updateOverlay();
+    }
+
+    /// Twice a second: totals plus the worst state so far
+    private void updateOverlay() {
+        TextView tv = overlay;
+        if (tv == null) return;
+        long frames = 0, over = 0;
+        State worst = null;
+        double worstPct = -1;
+        for (State s : State.values()) {
+            LatencyHistogram h = byState[s.ordinal()];
+            long n = h.count(), o = h.overBudget();
+            frames += n;
+            over += o;
+            if (n > 0 && 100.0 * o / n > worstPct) { worstPct = 100.0 * o / n; worst = s; }
+        }
+        tv.setText(frames == 0 ? "frames: -" : String.format(Locale.US,
+                "frames %d  over %.1f%%\nworst %s %.1f%%",
+                frames, 100.0 * over / frames, worst.name().toLowerCase(Locale.US), worstPct));
+        main.postDelayed(overlayTick, 500);
+    }
+
+    // -------------------------
+    // Internals
+    // -------------------------
+
+    private static synchronized Handler handler() {
+        if (metricsHandler == null) {
+            HandlerThread t = new HandlerThread("frame-metrics");
+            t.start();
+            metricsHandler = new Handler(t.getLooper());
+        }
+        return metricsHandler;
+    }
+
+    private static boolean isDebuggable(Context ctx) {
+        return (ctx.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+    }
+}
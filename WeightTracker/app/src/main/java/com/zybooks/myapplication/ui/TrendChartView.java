@@ -0,0 +1,317 @@
+package com.zybooks.myapplication.ui;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.zybooks.myapplication.Analytics;
+import com.zybooks.myapplication.models.WeightRecord;
+
+import java.util.List;
+
+/**
+ * TrendChartView
+ * - Plots weights (dots), the rolling average (line) and the Analytics.Trend line
+ * - Each series is LTTB-downsampled (Analytics.lttb) to about one point per pixel of width
+ *   over the visible range only, so multi-year histories cost the same to draw as a month
+ * - Drag to pan, pinch to zoom (x axis); double tap resets to the full range
+ * - All drawing buffers (Paths, point/index arrays) are allocated in onSizeChanged /
+ *   setSeries, never in onDraw
+ */
+public class TrendChartView extends View {
+    private static final double MIN_SPAN_DAYS = 7;
+    private static final double SECONDS_PER_DAY = 86_400.0;
+
+    /// Chart data in plotting units (x = fractional epoch day, oldest first); build off the main thread
+    public static final class Series {
+        final double[] x, y;          // weights
+        final double[] avgX, avgY;    // rolling average (only where defined)
+
+        private Series(double[] x, double[] y, double[] avgX, double[] avgY) {
+            this.x = x; this.y = y; this.avgX = avgX; this.avgY = avgY;
+        }
+
+        /// From a newest-first record list (cache/API order) and a rolling window in entries
+        public static Series of(List<WeightRecord> newestFirst, int window) {
+            int n = 0;
+            double[] x = new double[newestFirst.size()];
+            double[] y = new double[newestFirst.size()];
+            for (int i = newestFirst.size() - 1; i >= 0; i--) {
+                WeightRecord r = newestFirst.get(i);
+                if (r.getCenti() == WeightRecord.NO_VALUE || r.getEpochMillis() == WeightRecord.NO_TIME) continue;
+                x[n] = (r.getEpochMillis() / 1000) / SECONDS_PER_DAY;
+                y[n] = r.getWeight();
+                n++;
+            }
+
+            // Rolling average over the oldest-first points (same definition as Analytics)
+            int m = Math.max(0, n - window + 1);
+            double[] ax = new double[m], ay = new double[m];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += y[i];
+                if (i >= window) sum -= y[i - window];
+                if (i >= window - 1) {
+                    ax[i - window + 1] = x[i];
+                    ay[i - window + 1] = sum / window;
+                }
+            }
+            return new Series(trim(x, n), trim(y, n), ax, ay);
+        }
+
+        private static double[] trim(double[] a, int n) {
+            if (a.length == n) return a;
+            double[] out = new double[n];
+            System.arraycopy(a, 0, out, 0, n);
+            return out;
+        }
+    }
+
+    // --- data ---
+    private @Nullable Series series;
+    private @Nullable Analytics.Trend trend;
+    private double dataMin, dataMax;      // x extent of the data
+    private double viewMin, viewMax;      // visible x range
+
+    // --- preallocated drawing state ---
+    private final Paint dotPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint avgPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint trendPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint labelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Path avgPath = new Path();
+    private final Path trendPath = new Path();
+    private int[] idx = new int[0];        // LTTB output indices
+    private float[] dots = new float[0];   // x0,y0,x1,y1,... for drawPoints
+    private int dotCount;
+    private final char[] label = new char[16];
+    private int labelLen;
+    private double yMin, yMax;
+    private boolean dirty = true;          // rebuild buffers before the next draw
+
+    private final ScaleGestureDetector scaler;
+    private final GestureDetector gestures;
+
+    public TrendChartView(Context ctx) { this(ctx, null); }
+
+    public TrendChartView(Context ctx, @Nullable AttributeSet attrs) {
+        super(ctx, attrs);
+        float dp = ctx.getResources().getDisplayMetrics().density;
+
+        dotPaint.setColor(Color.DKGRAY);
+        dotPaint.setStrokeWidth(3 * dp);
+        dotPaint.setStrokeCap(Paint.Cap.ROUND);
+
+        avgPaint.setColor(Color.rgb(0x1E, 0x88, 0xE5));
+        avgPaint.setStyle(Paint.Style.STROKE);
+        avgPaint.setStrokeWidth(2 * dp);
+
+        trendPaint.setColor(Color.rgb(0xE5, 0x39, 0x35));
+        trendPaint.setStyle(Paint.Style.STROKE);
+        trendPaint.setStrokeWidth(1.5f * dp);
+
+        labelPaint.setColor(Color.GRAY);
+        labelPaint.setTextSize(11 * dp);
+
+        scaler = new ScaleGestureDetector(ctx, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override public boolean onScale(@NonNull ScaleGestureDetector d) {
+                if (viewMax <= viewMin) return true;
+                double focus = toDataX(d.getFocusX());
+                double span = (viewMax - viewMin) / d.getScaleFactor();
+                double left = (focus - viewMin) / (viewMax - viewMin);
+                setViewport(focus - span * left, focus + span * (1 - left));
+                return true;
+            }
+        });
+        gestures = new GestureDetector(ctx, new GestureDetector.SimpleOnGestureListener() {
+            @Override public boolean onDown(@NonNull MotionEvent e) { return true; }
+            @Override public boolean onScroll(@Nullable MotionEvent e1, @NonNull MotionEvent e2, float dx, float dy) {
+                double shift = dx / Math.max(1, plotWidth()) * (viewMax - viewMin);
+                setViewport(viewMin + shift, viewMax + shift);
+                return true;
+            }
+            @Override public boolean onDoubleTap(@NonNull MotionEvent e) {
+                setViewport(dataMin, dataMax);
+                return true;
+            }
+        });
+    }
+
+    /// New data (main thread). Keeps the visible span when possible, otherwise shows everything.
+    public void setSeries(@Nullable Series s) {
+        series = s;
+        if (s == null || s.x.length == 0) {
+            dataMin = dataMax = viewMin = viewMax = 0;
+        } else {
+            boolean hadView = viewMax > viewMin;
+            dataMin = s.x[0];
+            dataMax = s.x[s.x.length - 1];
+            if (!hadView) { viewMin = dataMin; viewMax = dataMax; }
+            setViewport(viewMin, viewMax);
+        }
+        dirty = true;
+        invalidate();
+    }
+
+    /// Trend line to overlay (drawn over the range it was fitted on)
+    public void setTrend(@Nullable Analytics.Trend t) {
+        trend = t;
+        dirty = true;
+        invalidate();
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent e) {
+        if (series == null) return false;
+        boolean handled = scaler.onTouchEvent(e);
+        handled |= gestures.onTouchEvent(e);
+        // Keep the list/parent from stealing horizontal drags
+        if (getParent() != null) getParent().requestDisallowInterceptTouchEvent(true);
+        return handled || super.onTouchEvent(e);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        // About one point per pixel column is all the screen can show
+        int max = Math.max(3, w);
+        idx = new int[max];
+        dots = new float[max * 2];
+        dirty = true;
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        Series s = series;
+        if (s == null || s.x.length == 0 || getWidth() == 0) return;
+        if (dirty) rebuild(s);
+
+        canvas.drawPath(avgPath, avgPaint);
+        canvas.drawPath(trendPath, trendPaint);
+        canvas.drawPoints(dots, 0, dotCount * 2, dotPaint);
+
+        // y-axis extent labels (formatted into a reused char buffer)
+        float pad = labelPaint.getTextSize();
+        formatLabel(yMax);
+        canvas.drawText(label, 0, labelLen, getPaddingLeft(), getPaddingTop() + pad, labelPaint);
+        formatLabel(yMin);
+        canvas.drawText(label, 0, labelLen, getPaddingLeft(), getHeight() - getPaddingBottom(), labelPaint);
+    }
+
+    // -------------------------
+    // Buffers
+    // -------------------------
+
+    /// Downsample the visible range and refill the Paths / point array
+    private void rebuild(Series s) {
+        dirty = false;
+        int threshold = Math.min(idx.length, Math.max(3, plotWidth()));
+
+        // Visible slice, plus one point either side so lines run off the edges
+        int lo = Math.max(0, lowerBound(s.x, s.x.length, viewMin) - 1);
+        int hi = Math.min(s.x.length, lowerBound(s.x, s.x.length, viewMax) + 1);
+
+        // y range from the visible raw points (not just the sampled ones)
+        yMin = Double.POSITIVE_INFINITY; yMax = Double.NEGATIVE_INFINITY;
+        for (int i = lo; i < hi; i++) {
+            if (s.y[i] < yMin) yMin = s.y[i];
+            if (s.y[i] > yMax) yMax = s.y[i];
+        }
+        if (yMin > yMax) { yMin = 0; yMax = 1; }
+        double margin = Math.max(0.5, (yMax - yMin) * 0.05);
+        yMin -= margin; yMax += margin;
+
+        // Weights -> dots
+        int k = Analytics.lttb(s.x, s.y, lo, hi, threshold, idx);
+        for (int i = 0; i < k; i++) {
+            dots[2 * i] = toPx(s.x[idx[i]]);
+            dots[2 * i + 1] = toPy(s.y[idx[i]]);
+        }
+        dotCount = k;
+
+        // Rolling average -> path
+        avgPath.rewind();
+        int alo = Math.max(0, lowerBound(s.avgX, s.avgX.length, viewMin) - 1);
+        int ahi = Math.min(s.avgX.length, lowerBound(s.avgX, s.avgX.length, viewMax) + 1);
+        k = Analytics.lttb(s.avgX, s.avgY, alo, ahi, threshold, idx);
+        for (int i = 0; i < k; i++) {
+            float px = toPx(s.avgX[idx[i]]), py = toPy(s.avgY[idx[i]]);
+            if (i == 0) avgPath.moveTo(px, py); else avgPath.lineTo(px, py);
+        }
+
+        // Trend -> one segment over its fitted range, clipped to the viewport
+        trendPath.rewind();
+        Analytics.Trend t = trend;
+        if (t != null) {
+            double x0 = Math.max(viewMin, t.minEpochDay), x1 = Math.min(viewMax, t.maxEpochDay + 1);
+            if (x1 > x0) {
+                trendPath.moveTo(toPx(x0), toPy(t.slopeLBPerDay * x0 + t.intercept));
+                trendPath.lineTo(toPx(x1), toPy(t.slopeLBPerDay * x1 + t.intercept));
+            }
+        }
+    }
+
+    /// Clamp to the data and a minimum span, then redraw
+    private void setViewport(double min, double max) {
+        double span = Math.max(Math.min(MIN_SPAN_DAYS, dataMax - dataMin), max - min);
+        span = Math.min(span, dataMax - dataMin);
+        if (min < dataMin) min = dataMin;
+        if (min + span > dataMax) min = dataMax - span;
+        viewMin = min;
+        viewMax = min + span;
+        dirty = true;
+        postInvalidateOnAnimation();
+    }
+
+    private int plotWidth() { return getWidth() - getPaddingLeft() - getPaddingRight(); }
+
+    private float toPx(double x) {
+        double span = viewMax - viewMin;
+        double f = span <= 0 ? 0.5 : (x - viewMin) / span;
+        return (float) (getPaddingLeft() + f * plotWidth());
+    }
+
+    private float toPy(double y) {
+        int h = getHeight() - getPaddingTop() - getPaddingBottom();
+        return (float) (getPaddingTop() + (1 - (y - yMin) / (yMax - yMin)) * h);
+    }
+
+    private double toDataX(float px) {
+        return viewMin + (px - getPaddingLeft()) / Math.max(1, plotWidth()) * (viewMax - viewMin);
+    }
+
+    /// First index with a[i] >= v (a ascending)
+    private static int lowerBound(double[] a, int n, double v) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < v) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /// "%.1f" into `label` without allocating
+    private void formatLabel(double v) {
+        long tenths = Math.round(Math.abs(v) * 10);
+        int n = 0;
+        char[] tmp = label;
+        // digits are written backwards then reversed
+        tmp[n++] = (char) ('0' + tenths % 10);
+        tmp[n++] = '.';
+        long whole = tenths / 10;
+        do { tmp[n++] = (char) ('0' + whole % 10); whole /= 10; } while (whole > 0 && n < tmp.length - 1);
+        if (v < 0 && tenths != 0) tmp[n++] = '-';
+        for (int i = 0, j = n - 1; i < j; i++, j--) { char c = tmp[i]; tmp[i] = tmp[j]; tmp[j] = c; }
+        labelLen = n;
+    }
+}
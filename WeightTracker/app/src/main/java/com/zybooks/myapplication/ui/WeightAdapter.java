@@ -1,5 +1,7 @@
 package com.zybooks.myapplication.ui;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -7,6 +9,8 @@ import android.widget.Button;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AsyncDifferConfig;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
@@ -14,8 +18,23 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.zybooks.myapplication.R;
 import com.zybooks.myapplication.models.WeightRecord;
 
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
 /// RecyclerView adapter for displaying weight records with Edit/Delete actions.
-public class WeightAdapter extends ListAdapter<WeightRecord, WeightAdapter.VH> {
+/// Rows are WeightRow display models built off the main thread (submitRecords), so binding
+/// allocates nothing: precomputed strings, one click listener per ViewHolder, stable ids.
+/// An optional placeholder footer marks that an older page is loading (infinite scroll).
+public class WeightAdapter extends ListAdapter<WeightRow, RecyclerView.ViewHolder> {
+
+    private static final int TYPE_ROW = 0;
+    private static final int TYPE_PLACEHOLDER = 1;
+    private static final long PLACEHOLDER_ID = Long.MIN_VALUE;
 
     /// Callbacks for row-level actions (provided by the hosting Activity)
     public interface OnItemAction {
@@ -23,70 +42,159 @@ public class WeightAdapter extends ListAdapter<WeightRecord, WeightAdapter.VH> {
         void onDelete(WeightRecord record);
     }
 
+    /// Default worker for formatting + diffing (one thread keeps submissions in order)
+    private static final Executor DEFAULT_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "weight-diff");
+        t.setDaemon(true);
+        return t;
+    });
+
     private final OnItemAction actions;
+    private final Executor worker;
+    private final Handler main = new Handler(Looper.getMainLooper());
+
+    /// Rows from the last build, by id: unchanged records reuse their formatted strings
+    private Map<Long, WeightRow> rowCache = new HashMap<>();   // worker thread only
+    private int submitGeneration = 0;                          // main thread only
+    private boolean placeholder = false;                       // main thread only
 
     /// ListAdapter handles diffing automatically using DIFF below.
     public WeightAdapter(OnItemAction actions) {
-        super(DIFF);
+        this(actions, DEFAULT_EXECUTOR);
+    }
+
+    /// `worker` formats rows and runs DiffUtil; it should run tasks in submission order
+    public WeightAdapter(OnItemAction actions, Executor worker) {
+        super(new AsyncDifferConfig.Builder<>(DIFF).setBackgroundThreadExecutor(worker).build());
         this.actions = actions;
+        this.worker = worker;
+        setHasStableIds(true);
     }
 
-    @NonNull @Override
-    public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        // Inflate one item row
-        View v = LayoutInflater.from(parent.getContext())
-                .inflate(R.layout.item_weight_record, parent, false);
-        return new VH(v);
+    /// Format records into rows on the worker, then diff + apply (call on the main thread).
+    /// A newer submission supersedes an older one that hasn't reached the adapter yet.
+    public void submitRecords(List<WeightRecord> records, @Nullable Runnable committed) {
+        final int gen = ++submitGeneration;
+        final ZoneId zone = ZoneId.systemDefault();
+        worker.execute(() -> {
+            List<WeightRow> rows = toRows(records, zone);
+            main.post(() -> {
+                if (gen != submitGeneration) return;
+                submitList(rows, committed);
+            });
+        });
+    }
+
+    public void submitRecords(List<WeightRecord> records) {
+        submitRecords(records, null);
+    }
+
+    private List<WeightRow> toRows(List<WeightRecord> records, ZoneId zone) {
+        List<WeightRow> rows = new ArrayList<>(records.size());
+        Map<Long, WeightRow> next = new HashMap<>(records.size() * 2);
+        for (WeightRecord r : records) {
+            WeightRow row = rowCache.get(r.getId());
+            if (row == null || !row.showsSameAs(r)) row = WeightRow.of(r, zone);
+            rows.add(row);
+            next.put(row.id, row);
+        }
+        rowCache = next;
+        return rows;
+    }
+
+    /// Show/hide the "loading older entries" row after the last record
+    public void setLoadingPlaceholder(boolean show) {
+        if (show == placeholder) return;
+        placeholder = show;
+        int pos = getRowCount();
+        if (show) notifyItemInserted(pos); else notifyItemRemoved(pos);
+    }
+
+    /// Number of real records (excludes the placeholder)
+    public int getRowCount() {
+        return super.getItemCount();
     }
 
     @Override
-    public void onBindViewHolder(@NonNull VH h, int position) {
-        // Get the current row’s data
-        WeightRecord r = getItem(position);
+    public int getItemCount() {
+        return getRowCount() + (placeholder ? 1 : 0);
+    }
 
-        // Read values from your model (rename if your model differs)
-        double value = r.getWeight();
-        String date  = r.getDate();
+    @Override
+    public int getItemViewType(int position) {
+        return position < getRowCount() ? TYPE_ROW : TYPE_PLACEHOLDER;
+    }
 
-        // Bind text
-        h.weightText.setText(String.format("%.2f lb", value));
-        h.dateText.setText(date);
+    @Override
+    public long getItemId(int position) {
+        return position < getRowCount() ? getItem(position).id : PLACEHOLDER_ID;
+    }
 
-        // Wire row actions to the provided callbacks
-        h.editButton.setOnClickListener(v -> actions.onEdit(r));
-        h.deleteButton.setOnClickListener(v -> actions.onDelete(r));
+    @NonNull @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        LayoutInflater inflater = LayoutInflater.from(parent.getContext());
+        if (viewType == TYPE_PLACEHOLDER) {
+            return new PlaceholderVH(inflater.inflate(R.layout.item_weight_placeholder, parent, false));
+        }
+        // Inflate one item row
+        View v = inflater.inflate(R.layout.item_weight_record, parent, false);
+        return new VH(v, this);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        if (!(holder instanceof VH)) return; // placeholder has nothing to bind
+        // Get the current row’s data (strings already formatted)
+        VH h = (VH) holder;
+        WeightRow r = getItem(position);
+        h.weightText.setText(r.weightText);
+        h.dateText.setText(r.dateText);
+    }
+
+    /// Shared by every row: resolves the record from the holder's current position
+    private void onRowClick(VH h, boolean delete) {
+        int pos = h.getBindingAdapterPosition();
+        if (pos == RecyclerView.NO_POSITION || pos >= getRowCount()) return;
+        WeightRecord r = getItem(pos).record;
+        if (delete) actions.onDelete(r); else actions.onEdit(r);
     }
 
     /// Stable diffing for smooth list updates
-    static final DiffUtil.ItemCallback<WeightRecord> DIFF =
-            new DiffUtil.ItemCallback<WeightRecord>() {
+    static final DiffUtil.ItemCallback<WeightRow> DIFF =
+            new DiffUtil.ItemCallback<WeightRow>() {
                 @Override
-                public boolean areItemsTheSame(@NonNull WeightRecord a, @NonNull WeightRecord b) {
+                public boolean areItemsTheSame(@NonNull WeightRow a, @NonNull WeightRow b) {
                     // Same database row -> same item
-                    return a.getId() == b.getId();
+                    return a.id == b.id;
                 }
                 @Override
-                public boolean areContentsTheSame(@NonNull WeightRecord a, @NonNull WeightRecord b) {
-                    // If fields shown on screen haven’t changed, no rebind needed
-                    return a.getWeight() == b.getWeight()
-                            && safeEq(a.getDate(), b.getDate());
-                }
-                private boolean safeEq(String x, String y) {
-                    return (x == null && y == null) || (x != null && x.equals(y));
+                public boolean areContentsTheSame(@NonNull WeightRow a, @NonNull WeightRow b) {
+                    // Same record (exact value + time), or the text shown on screen hasn’t changed: no rebind needed
+                    return a == b || a.record.equals(b.record)
+                            || (a.weightText.equals(b.weightText) && a.dateText.equals(b.dateText));
                 }
             };
 
-    /// Simple ViewHolder that caches view references for one row
+    /// Simple ViewHolder that caches view references (and its click listeners) for one row
     static class VH extends RecyclerView.ViewHolder {
         final TextView weightText, dateText;
         final Button editButton, deleteButton;
 
-        VH(@NonNull View itemView) {
+        VH(@NonNull View itemView, WeightAdapter adapter) {
             super(itemView);
             weightText   = itemView.findViewById(R.id.itemWeightText);
             dateText     = itemView.findViewById(R.id.itemDateText);
             editButton   = itemView.findViewById(R.id.itemEditButton);
             deleteButton = itemView.findViewById(R.id.itemDeleteButton);
+
+            // Wired once per holder, not per bind
+            editButton.setOnClickListener(v -> adapter.onRowClick(this, false));
+            deleteButton.setOnClickListener(v -> adapter.onRowClick(this, true));
         }
     }
-}
\ No newline at end of file
+
+    /// Footer row shown while the next page loads
+    static class PlaceholderVH extends RecyclerView.ViewHolder {
+        PlaceholderVH(@NonNull View itemView) { super(itemView); }
+    }
+}
@@ -0,0 +1,55 @@
+package com.zybooks.myapplication.ui;
+
+import com.zybooks.myapplication.models.WeightRecord;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/// WeightRow - display model for one list row: the record plus its on-screen strings,
+/// formatted once (off the main thread) so binding is just setText().
+public final class WeightRow {
+    private static final DateTimeFormatter DISPLAY_DATE =
+            DateTimeFormatter.ofPattern("MMM d, uuuu h:mm a", Locale.US);
+
+    public final WeightRecord record;
+    public final long id;
+    public final String weightText;   // "182.50 lb"
+    public final String dateText;     // "Jan 31, 2025 7:00 AM" (device time zone)
+
+    private WeightRow(WeightRecord record, String weightText, String dateText) {
+        this.record = record;
+        this.id = record.getId();
+        this.weightText = weightText;
+        this.dateText = dateText;
+    }
+
+    /// Format a record for display (call off the main thread)
+    public static WeightRow of(WeightRecord r, ZoneId zone) {
+        return new WeightRow(r, formatWeight(r.getWeight()), formatDate(r.getEpochMillis(), zone));
+    }
+
+    /// True if `r` would render exactly like this row (same value + timestamp)
+    boolean showsSameAs(WeightRecord r) {
+        return record.getCenti() == r.getCenti() && record.getEpochMillis() == r.getEpochMillis();
+    }
+
+    /// "%.2f lb" without going through Formatter
+    static String formatWeight(double v) {
+        if (Double.isNaN(v)) return "-- lb";
+        long centi = Math.round(Math.abs(v) * 100);
+        StringBuilder sb = new StringBuilder(12);
+        if (v < 0 && centi != 0) sb.append('-');
+        sb.append(centi / 100).append('.');
+        long frac = centi % 100;
+        if (frac < 10) sb.append('0');
+        return sb.append(frac).append(" lb").toString();
+    }
+
+    /// Epoch millis -> local date/time; "" if the record has no timestamp
+    static String formatDate(long epochMs, ZoneId zone) {
+        if (epochMs == WeightRecord.NO_TIME) return "";
+        return DISPLAY_DATE.format(Instant.ofEpochMilli(epochMs).atZone(zone));
+    }
+}
@@ -0,0 +1,182 @@
+package com.zybooks.myapplication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.zybooks.myapplication.models.WeightRecord;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * AnalyticsTest
+ * - TrendAccumulator: incremental add/remove agrees with a batch fit, keeps the day extent,
+ *   skips rows without a time or value, and reports degenerate fits as null
+ * - lttb: output size, kept endpoints, strictly increasing in-range indices, pass-through
+ *   below the threshold, and that a lone spike survives downsampling
+ */
+public class AnalyticsTest {
+    private static final long DAY = 86_400_000L;
+    private static final double EPS = 1e-9;
+
+    // -------------------------
+    // TrendAccumulator
+    // -------------------------
+
+    @Test
+    public void fitsAnExactLine() {
+        // 100 lb on day 0, losing half a pound a day
+        List<WeightRecord> rows = new ArrayList<>();
+        for (int d = 0; d < 10; d++) rows.add(row(d, d * DAY, 100 - 0.5 * d));
+
+        Analytics.Trend t = Analytics.TrendAccumulator.of(rows).trend();
+
+        assertNotNull(t);
+        assertEquals(-0.5, t.slopeLBPerDay, EPS);
+        assertEquals(100, t.intercept, EPS);
+        assertEquals(0, t.minEpochDay);
+        assertEquals(9, t.maxEpochDay);
+    }
+
+    @Test
+    public void incrementalEditsMatchABatchFit() {
+        Random rnd = new Random(7);
+        List<WeightRecord> rows = new ArrayList<>();
+        for (int i = 0; i < 50; i++) rows.add(row(i, (1000 + rnd.nextInt(200)) * DAY, 150 + rnd.nextInt(3000) / 100.0));
+
+        Analytics.TrendAccumulator acc = Analytics.TrendAccumulator.of(rows);
+        WeightRecord extra = row(99, 1300 * DAY, 140.25);
+        acc.add(extra);
+        acc.remove(rows.get(3));
+        acc.remove(rows.get(17));
+
+        List<WeightRecord> edited = new ArrayList<>(rows);
+        edited.add(extra);
+        edited.remove(17);
+        edited.remove(3);
+        assertSameTrend(Analytics.TrendAccumulator.of(edited).trend(), acc.trend());
+        assertEquals(edited.size(), acc.size());
+    }
+
+    @Test
+    public void removingTheLastRowOfADayShrinksTheExtent() {
+        WeightRecord first = row(1, 10 * DAY, 150);
+        WeightRecord last = row(3, 30 * DAY, 140);
+        Analytics.TrendAccumulator acc = Analytics.TrendAccumulator.of(Arrays.asList(
+                first, row(2, 20 * DAY, 145), row(4, 30 * DAY + 3_600_000, 141), last));
+
+        acc.remove(last);
+        assertEquals(30, acc.trend().maxEpochDay);   // another row is still on day 30
+        acc.remove(row(4, 30 * DAY + 3_600_000, 141));
+        acc.remove(first);
+
+        assertNull(acc.trend());   // one row left
+        acc.add(first);
+        Analytics.Trend t = acc.trend();
+        assertEquals(10, t.minEpochDay);
+        assertEquals(20, t.maxEpochDay);
+    }
+
+    @Test
+    public void skipsRowsWithoutTimeOrValue() {
+        List<WeightRecord> good = Arrays.asList(row(1, 0, 150), row(2, 5 * DAY, 148), row(3, 9 * DAY, 147));
+        List<WeightRecord> mixed = new ArrayList<>(good);
+        mixed.add(new WeightRecord(4, 15_000, WeightRecord.NO_TIME));
+        mixed.add(new WeightRecord(5, WeightRecord.NO_VALUE, 7 * DAY));
+
+        Analytics.TrendAccumulator acc = Analytics.TrendAccumulator.of(mixed);
+
+        assertEquals(3, acc.size());
+        assertSameTrend(Analytics.TrendAccumulator.of(good).trend(), acc.trend());
+    }
+
+    @Test
+    public void degenerateFitsAreNull() {
+        assertNull(Analytics.TrendAccumulator.of(new ArrayList<>()).trend());
+        assertNull(Analytics.TrendAccumulator.of(Arrays.asList(row(1, 0, 150))).trend());
+        // Same day: no spread in x
+        assertNull(Analytics.TrendAccumulator.of(Arrays.asList(
+                row(1, 3 * DAY, 150), row(2, 3 * DAY + 60_000, 149))).trend());
+    }
+
+    // -------------------------
+    // lttb
+    // -------------------------
+
+    @Test
+    public void lttbKeepsEndpointsAndReturnsThresholdIncreasingIndices() {
+        Random rnd = new Random(11);
+        for (int n : new int[]{4, 5, 50, 997, 5_000}) {
+            double[] x = new double[n + 20], y = new double[n + 20];
+            for (int i = 0; i < x.length; i++) { x[i] = i * 1.5; y[i] = rnd.nextGaussian(); }
+            int from = 10, to = 10 + n;
+
+            for (int threshold : new int[]{3, 4, 7, 100, 300}) {
+                if (threshold >= n) continue;
+                int[] out = new int[threshold];
+                int k = Analytics.lttb(x, y, from, to, threshold, out);
+
+                String at = "n=" + n + " threshold=" + threshold;
+                assertEquals(at, threshold, k);
+                assertEquals(at, from, out[0]);
+                assertEquals(at, to - 1, out[k - 1]);
+                for (int i = 1; i < k; i++) {
+                    assertTrue(at + " index " + i, out[i] > out[i - 1] && out[i] < to);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void lttbPassesThroughSmallRanges() {
+        double[] x = {0, 1, 2, 3, 4, 5}, y = {5, 4, 3, 2, 1, 0};
+        int[] out = new int[10];
+
+        assertEquals(4, Analytics.lttb(x, y, 1, 5, 10, out));
+        assertEquals(Arrays.asList(1, 2, 3, 4), head(out, 4));
+        assertEquals(4, Analytics.lttb(x, y, 1, 5, 4, out));   // threshold == n
+        assertEquals(0, Analytics.lttb(x, y, 3, 3, 10, out));   // empty range
+    }
+
+    @Test
+    public void lttbKeepsALoneSpike() {
+        int n = 1_000;
+        double[] x = new double[n], y = new double[n];
+        for (int i = 0; i < n; i++) { x[i] = i; y[i] = 150; }
+        y[613] = 190;
+        int[] out = new int[20];
+
+        int k = Analytics.lttb(x, y, 0, n, 20, out);
+
+        assertTrue(head(out, k).contains(613));
+    }
+
+    // -------------------------
+    // Helpers
+    // -------------------------
+
+    private static WeightRecord row(long id, long epochMs, double weight) {
+        return new WeightRecord(id, WeightRecord.toCenti(weight), epochMs);
+    }
+
+    private static void assertSameTrend(Analytics.Trend expected, Analytics.Trend actual) {
+        assertNotNull(expected);
+        assertNotNull(actual);
+        assertEquals(expected.slopeLBPerDay, actual.slopeLBPerDay, 1e-6);
+        assertEquals(expected.intercept, actual.intercept, 1e-3);
+        assertEquals(expected.minEpochDay, actual.minEpochDay);
+        assertEquals(expected.maxEpochDay, actual.maxEpochDay);
+    }
+
+    private static List<Integer> head(int[] a, int k) {
+        List<Integer> out = new ArrayList<>();
+        for (int i = 0; i < k; i++) out.add(a[i]);
+        return out;
+    }
+}
@@ -0,0 +1,168 @@
+package com.zybooks.myapplication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import android.app.Application;
+
+import com.zybooks.myapplication.models.GoalRecord;
+import com.zybooks.myapplication.models.WeightRecord;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * DatabaseHelperBenchmark
+ * - Times the cache paths (DatabaseHelper) on the JVM, against Robolectric's host SQLite
+ * - Per size (default 10k, 100k, 1M rows): replaceWeights, getAllWeights, first/deep page,
+ *   hasWeights, replaceFirstPage, upsertWeights (one older page), upsertWeight, replaceDraft,
+ *   deleteWeight, setGoal/getGoal
+ * - Each op: one warm-up, then the median of REPEATS runs; records wall time, rows/sec and
+ *   bytes allocated on the test thread (Java heap only, SQLite's native memory isn't counted)
+ * - Results go to build/reports/bench/db-bench.csv; pass a previous CSV as bench.baseline to
+ *   print the change per op and flag anything over REGRESSION slower
+ * - Opt-in (slow at 1M rows): ./gradlew testDebugUnitTest --tests '*DatabaseHelperBenchmark'
+ *   -Pbench=true [-Pbench.rows=10000,100000] [-Pbench.baseline=path/to/old.csv]
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)   // skip WeightTrackerApp's network/work startup
+public class DatabaseHelperBenchmark {
+    private static final int REPEATS = 3;
+    private static final double REGRESSION = 0.20;   // 20% slower than the baseline
+    private static final int PAGE = GridViewModel.PAGE_SIZE;
+
+    private DatabaseHelper db;
+    private final List<String> csv = new ArrayList<>();
+    private final Map<String, Double> baseline = new HashMap<>();
+
+    @Before
+    public void setUp() throws IOException {
+        assumeTrue("benchmark is opt-in (-Pbench=true)", Boolean.getBoolean("bench"));
+        db = new DatabaseHelper(RuntimeEnvironment.getApplication());
+        String base = System.getProperty("bench.baseline");
+        if (base != null) readBaseline(new File(base));
+    }
+
+    @After
+    public void tearDown() {
+        if (db != null) db.close();
+    }
+
+    @Test
+    public void cachePaths() throws IOException {
+        int[] sizes = Arrays.stream(System.getProperty("bench.rows", "10000,100000,1000000").split(","))
+                .map(String::trim).mapToInt(Integer::parseInt).toArray();
+        csv.add("rows,op,ms,rows_per_s,alloc_bytes");
+        System.out.println(String.format(Locale.US, "%9s %-16s %10s %12s %14s %s",
+                "rows", "op", "ms", "rows/s", "alloc", "vs baseline"));
+
+        for (int n : sizes) {
+            List<WeightRecord> all = records(n, 1, 0);
+            List<WeightRecord> newer = records(PAGE, n + 1, PAGE / 2);   // overlaps the newest rows
+            List<WeightRecord> older = records(PAGE, 2L * n + 1, n);     // beyond the oldest rows
+
+            run(n, "replaceWeights", n, () -> db.replaceWeights(all));
+            run(n, "getAllWeights", n, () -> assertEquals(n, db.getAllWeights().size()));
+            run(n, "getWeightsPage", PAGE, () -> db.getWeightsPage(PAGE, 0));
+            run(n, "getWeightsPage@mid", PAGE, () -> db.getWeightsPage(PAGE, n / 2));
+            run(n, "hasWeights", 1, () -> db.hasWeights());
+            run(n, "replaceFirstPage", PAGE, () -> db.replaceFirstPage(newer, PAGE));
+            run(n, "upsertWeights", PAGE, () -> db.upsertWeights(older));
+            run(n, "upsertWeight", 1, () -> db.upsertWeight(all.get(n / 2)));
+            run(n, "replaceDraft", 1, () -> {
+                db.upsertWeight(new WeightRecord(-1, 15000, 0L));
+                db.replaceDraft(-1, all.get(n / 3));
+            });
+            run(n, "deleteWeight", 1, () -> db.deleteWeight(-2));   // miss: index lookup only
+            run(n, "setGoal", 1, () -> db.setGoal(new GoalRecord(150.0, "2025-01-31T00:00:00.000Z")));
+            run(n, "getGoal", 1, () -> db.getGoal());
+        }
+        save();
+    }
+
+    /// Warm up once, then keep the median of REPEATS runs
+    private void run(int n, String op, int rows, Runnable body) {
+        body.run();
+        long[] ns = new long[REPEATS];
+        long[] alloc = new long[REPEATS];
+        for (int i = 0; i < REPEATS; i++) {
+            long a0 = allocated();
+            long t0 = System.nanoTime();
+            body.run();
+            ns[i] = System.nanoTime() - t0;
+            alloc[i] = allocated() - a0;
+        }
+        Arrays.sort(ns);
+        Arrays.sort(alloc);
+        double ms = ns[REPEATS / 2] / 1e6;
+        double perSec = rows / (ns[REPEATS / 2] / 1e9);
+        long bytes = alloc[REPEATS / 2];
+        csv.add(String.format(Locale.US, "%d,%s,%.3f,%.0f,%d", n, op, ms, perSec, bytes));
+
+        String vs = "";
+        Double before = baseline.get(n + "," + op);
+        if (before != null && before > 0) {
+            double change = ms / before - 1;
+            vs = String.format(Locale.US, "%+.0f%%%s", change * 100, change > REGRESSION ? "  REGRESSION" : "");
+        }
+        System.out.println(String.format(Locale.US, "%9d %-16s %10.3f %12.0f %14d %s",
+                n, op, ms, perSec, bytes, vs));
+    }
+
+    /// Newest first: ids from firstId, one entry every 6 hours, `skip` slots back from a fixed "now"
+    private static List<WeightRecord> records(int count, long firstId, int skip) {
+        final long now = 1_760_000_000_000L;
+        final long step = 6 * 3_600_000L;
+        Random rnd = new Random(firstId);
+        List<WeightRecord> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            out.add(new WeightRecord(firstId + i, 14_000 + rnd.nextInt(6_000), now - (skip + i) * step));
+        }
+        return out;
+    }
+
+    /// Bytes allocated so far by this thread (HotSpot), or 0 if the JVM can't tell
+    private static long allocated() {
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (mx instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) mx).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private void readBaseline(File f) throws IOException {
+        for (String line : Files.readAllLines(f.toPath(), StandardCharsets.UTF_8)) {
+            String[] p = line.split(",");
+            if (p.length < 3 || p[0].equals("rows")) continue;
+            baseline.put(p[0] + "," + p[1], Double.parseDouble(p[2]));
+        }
+    }
+
+    private void save() throws IOException {
+        File dir = new File("build/reports/bench");
+        if (!dir.isDirectory() && !dir.mkdirs()) return;
+        try (Writer w = new FileWriter(new File(dir, "db-bench.csv"))) {
+            for (String line : csv) w.write(line + "\n");
+        }
+    }
+}
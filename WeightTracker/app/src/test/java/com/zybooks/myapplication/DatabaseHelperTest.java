@@ -0,0 +1,85 @@
+package com.zybooks.myapplication;
+
+import static org.junit.Assert.assertEquals;
+
+import android.app.Application;
+
+import com.zybooks.myapplication.models.WeightRecord;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * DatabaseHelperTest
+ * - replaceFirstPage against Robolectric's host SQLite: which cached rows a fresh first page
+ *   replaces, including rows tied on the page's oldest timestamp
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class DatabaseHelperTest {
+    private static final long T0 = 1_735_603_200_000L;   // 2024-12-31T00:00:00Z
+    private static final long DAY = 86_400_000L;
+
+    private DatabaseHelper db;
+
+    @Before
+    public void setUp() {
+        db = new DatabaseHelper(RuntimeEnvironment.getApplication());
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void firstPageKeepsRowsTiedOnItsOldestTimestamp() {
+        // Midnight entries share a timestamp; (recorded_at DESC, id DESC) puts 7 on page 2
+        db.replaceWeights(Arrays.asList(
+                row(10, T0 + 2 * DAY), row(9, T0 + DAY), row(8, T0 + DAY), row(7, T0 + DAY), row(6, T0)));
+
+        db.replaceFirstPage(Arrays.asList(row(10, T0 + 2 * DAY), row(9, T0 + DAY), row(8, T0 + DAY)), 3);
+
+        assertEquals(Arrays.asList(10L, 9L, 8L, 7L, 6L), ids(db.getAllWeights()));
+        assertEquals(Arrays.asList(7L, 6L), ids(db.getWeightsPage(3, 3)));
+    }
+
+    @Test
+    public void firstPageReplacesNewerRowsAndDrafts() {
+        db.replaceWeights(Arrays.asList(row(12, T0 + 3 * DAY), row(-1, T0 + 3 * DAY),
+                row(11, T0 + 2 * DAY), row(5, T0)));
+
+        // 12 was deleted on the server; the draft was saved as 13
+        db.replaceFirstPage(Arrays.asList(row(13, T0 + 3 * DAY), row(11, T0 + 2 * DAY)), 2);
+
+        assertEquals(Arrays.asList(13L, 11L, 5L), ids(db.getAllWeights()));
+    }
+
+    @Test
+    public void shortFirstPageIsTheWholeHistory() {
+        db.replaceWeights(Arrays.asList(row(3, T0 + DAY), row(2, T0)));
+
+        db.replaceFirstPage(Arrays.asList(row(4, T0 + 2 * DAY)), 3);
+
+        assertEquals(Arrays.asList(4L), ids(db.getAllWeights()));
+    }
+
+    private static WeightRecord row(long id, long epochMs) {
+        return new WeightRecord(id, 15_000, epochMs);
+    }
+
+    private static List<Long> ids(List<WeightRecord> rows) {
+        List<Long> out = new ArrayList<>();
+        for (WeightRecord r : rows) out.add(r.getId());
+        return out;
+    }
+}
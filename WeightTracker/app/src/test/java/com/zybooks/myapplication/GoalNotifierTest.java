@@ -0,0 +1,206 @@
+package com.zybooks.myapplication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.Nullable;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GoalNotifierTest
+ * - Coalescing (latest offer wins), dedup of an already congratulated goal, the
+ *   MIN_INTERVAL_MS quiet window, and failed/refused sends (not counted as sent)
+ * - Runs on a fake clock: a hand-driven scheduler fires queued sends as time is advanced
+ */
+public class GoalNotifierTest {
+    private long now = 1_000_000L;
+    private final ManualScheduler scheduler = new ManualScheduler();
+    private final FakeSender sender = new FakeSender();
+    private final GoalNotifier notifier = new GoalNotifier(sender, scheduler, () -> now);
+    private final List<GoalNotifier.Outcome> outcomes = new ArrayList<>();
+
+    @Test
+    public void ignoresWeightsAboveTheGoalOrNoGoal() {
+        assertFalse(notifier.offer(151, 150, outcomes::add));
+        assertFalse(notifier.offer(140, Double.NaN, outcomes::add));
+
+        advance(GoalNotifier.COALESCE_MS);
+        assertTrue(sender.sent.isEmpty());
+    }
+
+    @Test
+    public void coalescesOffersAndLatestCallbackWins() {
+        List<GoalNotifier.Outcome> first = new ArrayList<>();
+        assertTrue(notifier.offer(149, 150, first::add));
+        advance(1_000);
+        assertTrue(notifier.offer(148, 150, outcomes::add));
+
+        advance(GoalNotifier.COALESCE_MS - 1_000 - 1);
+        assertTrue(sender.sent.isEmpty());
+        advance(1);
+
+        assertEquals(Collections.singletonList(GoalNotifier.message(150)), sender.sent);
+        assertTrue(first.isEmpty());
+        assertEquals(Collections.singletonList(GoalNotifier.Outcome.SENT), outcomes);
+    }
+
+    @Test
+    public void doesNotCongratulateTheSameGoalTwice() {
+        sendOnce(150);
+
+        assertFalse(notifier.offer(147, 150, outcomes::add));
+        advance(2 * GoalNotifier.MIN_INTERVAL_MS);
+        assertEquals(1, sender.sent.size());
+    }
+
+    @Test
+    public void newGoalWaitsOutTheQuietWindow() {
+        sendOnce(150);
+        long sentAt = now;
+
+        advance(10 * 60_000L);
+        assertTrue(notifier.offer(144, 145, outcomes::add));
+
+        advanceTo(sentAt + GoalNotifier.MIN_INTERVAL_MS - 1);
+        assertEquals(1, sender.sent.size());
+        advance(1);
+        assertEquals(Arrays.asList(GoalNotifier.message(150), GoalNotifier.message(145)), sender.sent);
+    }
+
+    @Test
+    public void failedSendIsNotCountedAsSent() {
+        sender.failWith = new RuntimeException("radio off");
+        assertTrue(notifier.offer(149, 150, outcomes::add));
+        advance(GoalNotifier.COALESCE_MS);
+        assertEquals(Collections.singletonList(GoalNotifier.Outcome.FAILED), outcomes);
+
+        // Same goal can be tried again, and no quiet window applies
+        sender.failWith = null;
+        assertTrue(notifier.offer(149, 150, outcomes::add));
+        advance(GoalNotifier.COALESCE_MS);
+        assertEquals(Collections.singletonList(GoalNotifier.message(150)), sender.sent);
+        assertEquals(GoalNotifier.Outcome.SENT, outcomes.get(1));
+    }
+
+    @Test
+    public void refusedSendReportsNoPermission() {
+        sender.failWith = new SecurityException("SEND_SMS not granted");
+        assertTrue(notifier.offer(149, 150, outcomes::add));
+        advance(GoalNotifier.COALESCE_MS);
+
+        assertEquals(Collections.singletonList(GoalNotifier.Outcome.NO_PERMISSION), outcomes);
+        assertTrue(notifier.offer(149, 150, null));   // still not congratulated
+    }
+
+    // -------------------------
+    // Helpers
+    // -------------------------
+
+    private void sendOnce(double goal) {
+        assertTrue(notifier.offer(goal - 1, goal, outcomes::add));
+        advance(GoalNotifier.COALESCE_MS);
+        assertEquals(GoalNotifier.Outcome.SENT, outcomes.get(outcomes.size() - 1));
+    }
+
+    private void advance(long ms) {
+        advanceTo(now + ms);
+    }
+
+    private void advanceTo(long t) {
+        scheduler.runUntil(t);
+        now = t;
+    }
+
+    /// Records sends, or throws `failWith`
+    static final class FakeSender implements GoalNotifier.Sender {
+        final List<String> sent = new ArrayList<>();
+        @Nullable Exception failWith;
+
+        @Override public void send(String text) throws Exception {
+            if (failWith != null) throw failWith;
+            sent.add(text);
+        }
+    }
+
+    /// Single-threaded scheduler on the test's clock: tasks run inside runUntil(), in due order
+    final class ManualScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+        private final PriorityQueue<Task> tasks = new PriorityQueue<>();
+
+        void runUntil(long t) {
+            while (!tasks.isEmpty() && tasks.peek().dueAt <= t) {
+                Task task = tasks.poll();
+                now = task.dueAt;
+                task.run();
+            }
+        }
+
+        @Override public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            Task task = new Task(command, now + unit.toMillis(delay));
+            tasks.add(task);
+            return task;
+        }
+
+        @Override public void execute(Runnable command) { schedule(command, 0, TimeUnit.MILLISECONDS); }
+
+        @Override public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+        @Override public ScheduledFuture<?> scheduleAtFixedRate(Runnable r, long i, long p, TimeUnit u) {
+            throw new UnsupportedOperationException();
+        }
+        @Override public ScheduledFuture<?> scheduleWithFixedDelay(Runnable r, long i, long d, TimeUnit u) {
+            throw new UnsupportedOperationException();
+        }
+        @Override public void shutdown() { }
+        @Override public List<Runnable> shutdownNow() { return new ArrayList<>(); }
+        @Override public boolean isShutdown() { return false; }
+        @Override public boolean isTerminated() { return false; }
+        @Override public boolean awaitTermination(long timeout, TimeUnit unit) { return true; }
+
+        final class Task implements ScheduledFuture<Void>, Runnable {
+            final Runnable body;
+            final long dueAt;
+            boolean done, cancelled;
+
+            Task(Runnable body, long dueAt) {
+                this.body = body;
+                this.dueAt = dueAt;
+            }
+
+            @Override public void run() {
+                if (cancelled) return;
+                body.run();
+                done = true;
+            }
+
+            @Override public long getDelay(TimeUnit unit) {
+                return unit.convert(dueAt - now, TimeUnit.MILLISECONDS);
+            }
+            @Override public int compareTo(Delayed o) {
+                return Long.compare(dueAt, ((Task) o).dueAt);
+            }
+            @Override public boolean cancel(boolean mayInterrupt) {
+                cancelled = !done;
+                return cancelled;
+            }
+            @Override public boolean isCancelled() { return cancelled; }
+            @Override public boolean isDone() { return done || cancelled; }
+            @Override public Void get() { return null; }
+            @Override public Void get(long timeout, TimeUnit unit) { return null; }
+        }
+    }
+}
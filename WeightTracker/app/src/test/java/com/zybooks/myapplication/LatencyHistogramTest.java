@@ -0,0 +1,40 @@
+package com.zybooks.myapplication;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * LatencyHistogramTest
+ * - Bucketing is on the raw nanoseconds: a sample on a bound stays in that bucket, anything
+ *   past it (even by a fraction of a millisecond) moves up; past the last bound overflows
+ */
+public class LatencyHistogramTest {
+    private static final long[] BOUNDS_MS = {1, 2, 5};
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void fractionalMillisecondsAreNotTruncated() {
+        LatencyHistogram h = new LatencyHistogram(BOUNDS_MS);
+        h.record(MS + MS / 5);   // 1.2 ms
+
+        assertEquals(2, h.percentileMs(1.0));
+    }
+
+    @Test
+    public void sampleOnABoundStaysInItsBucket() {
+        LatencyHistogram h = new LatencyHistogram(BOUNDS_MS);
+        h.record(MS / 2);
+        h.record(MS);
+
+        assertEquals(1, h.percentileMs(1.0));
+    }
+
+    @Test
+    public void pastTheLastBoundOverflows() {
+        LatencyHistogram h = new LatencyHistogram(BOUNDS_MS);
+        h.record(5 * MS + 1);
+
+        assertEquals(-1, h.percentileMs(0.5));
+    }
+}
@@ -0,0 +1,180 @@
+package com.zybooks.myapplication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LatestComputeTest
+ * - Latest-wins: a superseded submit is skipped if queued, left to run (not interrupted) if
+ *   running, and its result is dropped (also once already posted to main)
+ * - cancel() drops everything until the next submit
+ * - Real compute thread; "main" is a queue the test drains by hand
+ */
+public class LatestComputeTest {
+    private final ExecutorService compute = Executors.newSingleThreadExecutor();
+    private final Queue<Runnable> mainQueue = new ArrayDeque<>();
+    private final List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+    private final LatestCompute<String> latest =
+            new LatestCompute<>(delivered::add, compute, this::postToMain);
+
+    @After
+    public void tearDown() {
+        compute.shutdownNow();
+    }
+
+    @Test
+    public void deliversOnMainOnly() throws Exception {
+        latest.submit(token -> "a");
+        idle();
+
+        assertTrue(delivered.isEmpty());
+        drainMain();
+        assertEquals(Arrays.asList("a"), delivered);
+    }
+
+    @Test
+    public void runningWorkIsNotInterruptedBySupersedingSubmit() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger interrupted = new AtomicInteger();
+        latest.submit(token -> {
+            started.countDown();
+            while (!token.isStale()) Thread.yield();   // stands in for a long cursor walk
+            if (Thread.currentThread().isInterrupted()) interrupted.incrementAndGet();
+            return "old";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        latest.submit(token -> "new");
+        idle();
+        drainMain();
+
+        assertEquals(0, interrupted.get());
+        assertEquals(Arrays.asList("new"), delivered);
+    }
+
+    @Test
+    public void queuedWorkIsSkipped() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        compute.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+                // test ended
+            }
+        });
+        AtomicInteger ran = new AtomicInteger();
+        latest.submit(token -> { ran.incrementAndGet(); return "first"; });
+        latest.submit(token -> { ran.incrementAndGet(); return "second"; });
+        latest.submit(token -> { ran.incrementAndGet(); return "third"; });
+        release.countDown();
+        idle();
+        drainMain();
+
+        assertEquals(1, ran.get());
+        assertEquals(Arrays.asList("third"), delivered);
+    }
+
+    @Test
+    public void resultOfSupersededRunningWorkIsDropped() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch superseded = new CountDownLatch(1);
+        AtomicInteger sawStale = new AtomicInteger();
+        latest.submit(token -> {
+            started.countDown();
+            // Keep going past the superseding submit, then finish anyway
+            while (superseded.getCount() > 0) Thread.yield();
+            if (token.isStale()) sawStale.incrementAndGet();
+            return "old";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        latest.submit(token -> "new");
+        superseded.countDown();
+        idle();
+        drainMain();
+
+        assertEquals(1, sawStale.get());
+        assertEquals(Arrays.asList("new"), delivered);
+    }
+
+    @Test
+    public void resultAlreadyPostedIsDroppedOnceSuperseded() throws Exception {
+        latest.submit(token -> "old");
+        idle();
+        assertEquals(1, mainQueue.size());   // "old" is waiting on main
+
+        CountDownLatch release = new CountDownLatch(1);
+        latest.submit(token -> { release.await(); return "new"; });
+        drainMain();
+        assertTrue(delivered.isEmpty());
+
+        release.countDown();
+        idle();
+        drainMain();
+        assertEquals(Arrays.asList("new"), delivered);
+    }
+
+    @Test
+    public void cancelDropsPendingResultUntilNextSubmit() throws Exception {
+        latest.submit(token -> "old");
+        idle();
+        latest.cancel();
+        drainMain();
+        assertTrue(delivered.isEmpty());
+
+        latest.submit(token -> "next");
+        idle();
+        drainMain();
+        assertEquals(Arrays.asList("next"), delivered);
+    }
+
+    @Test
+    public void tokenGoesStaleOnNewerSubmit() throws Exception {
+        LatestCompute.Token[] seen = new LatestCompute.Token[1];
+        latest.submit(token -> { seen[0] = token; return "a"; });
+        idle();
+        assertFalse(seen[0].isStale());
+
+        latest.submit(token -> "b");
+        assertTrue(seen[0].isStale());
+    }
+
+    // -------------------------
+    // Helpers
+    // -------------------------
+
+    private synchronized void postToMain(Runnable r) {
+        mainQueue.add(r);
+    }
+
+    /// Wait until everything submitted to the compute thread so far has run
+    private void idle() throws Exception {
+        compute.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private void drainMain() {
+        while (true) {
+            Runnable r;
+            synchronized (this) {
+                r = mainQueue.poll();
+            }
+            if (r == null) return;
+            r.run();
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.zybooks.myapplication.net;
+
+import static org.junit.Assert.assertEquals;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * ApiLoadTest
+ * - Load harness for the real Api client: OkHttp dispatcher and connection pool,
+ *   AuthInterceptor, TokenAuthenticator, retry/breaker and single-flight GETs
+ * - The backend is a local MockWebServer stand-in for the Express API (same routes and
+ *   JSON shapes), so it runs offline on the JVM
+ * - N simulated users each run a list/create/update/delete mix, one call at a time
+ * - The stand-in rotates its token every ROTATE_MS (the previous one stays valid for one more
+ *   period, like overlapping JWT lifetimes), so 401 -> refresh -> replay happens under
+ *   contention; the fake token source counts what that costs
+ * - Reports throughput, per-operation latency percentiles, connections opened, peak
+ *   running/queued calls and token refreshes vs 401s (stdout + build/reports/load/api-load.txt)
+ * - Knobs (gradle -P or -D): load.users, load.ops, load.maxPerHost, load.serverMs, load.rotateMs.
+ *   Defaults are small so the regular unit test run stays fast.
+ */
+public class ApiLoadTest {
+    private static final int USERS = Integer.getInteger("load.users", 8);
+    private static final int OPS_PER_USER = Integer.getInteger("load.ops", 50);
+    private static final int MAX_PER_HOST = Integer.getInteger("load.maxPerHost", 5); // OkHttp default
+    private static final int SERVER_MS = Integer.getInteger("load.serverMs", 2);      // backend time per call
+    private static final int ROTATE_MS = Integer.getInteger("load.rotateMs", 250);    // token lifetime
+    private static final int REFRESH_MS = 20;                                         // token endpoint time
+
+    enum Op { LIST, CREATE, UPDATE, DELETE }
+
+    private MockWebServer server;
+    private StandIn backend;
+    private FakeTokens tokens;
+    private Dispatcher dispatcher;
+    private ConnectionPool pool;
+    private Api api;
+
+    @Before
+    public void setUp() throws IOException {
+        dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(MAX_PER_HOST);
+        pool = new ConnectionPool();
+
+        backend = new StandIn(dispatcher);
+        server = new MockWebServer();
+        server.setDispatcher(backend);
+        server.start();
+
+        tokens = new FakeTokens(backend);
+        String base = server.url("/").toString();
+        api = new Api(null, base.substring(0, base.length() - 1), tokens,
+                new OkHttpClient.Builder().dispatcher(dispatcher).connectionPool(pool));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void concurrentUsers() throws Exception {
+        Map<Op, List<Long>> latencies = new EnumMap<>(Op.class);
+        for (Op op : Op.values()) latencies.put(op, Collections.synchronizedList(new ArrayList<>()));
+        AtomicInteger errors = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+
+        ExecutorService users = Executors.newFixedThreadPool(USERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> runs = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            final long seed = u;
+            runs.add(CompletableFuture.runAsync(() -> {
+                try { start.await(); } catch (InterruptedException e) { return; }
+                runUser(new Random(seed), latencies, errors, done);
+            }, users));
+        }
+
+        long t0 = System.nanoTime();
+        start.countDown();
+        CompletableFuture.allOf(runs.toArray(new CompletableFuture[0])).get(5, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - t0;
+        users.shutdown();
+
+        report(latencies, done.get(), errors.get(), elapsed);
+        assertEquals("failed calls", 0, errors.get());
+        assertEquals(USERS * OPS_PER_USER, done.get());
+    }
+
+    /// One simulated user: mostly reads, edits only its own rows
+    private void runUser(Random rnd, Map<Op, List<Long>> latencies, AtomicInteger errors, AtomicInteger done) {
+        Deque<Long> mine = new ArrayDeque<>();
+        for (int i = 0; i < OPS_PER_USER; i++) {
+            int roll = rnd.nextInt(100);
+            Op op = roll < 50 ? Op.LIST : roll < 70 ? Op.CREATE : roll < 90 ? Op.UPDATE : Op.DELETE;
+            if (op != Op.LIST && op != Op.CREATE && mine.isEmpty()) op = Op.CREATE;
+
+            long t0 = System.nanoTime();
+            try {
+                switch (op) {
+                    case LIST:
+                        api.listWeightsAsync(100, rnd.nextInt(5) == 0 ? 100 : 0).get();
+                        break;
+                    case CREATE:
+                        mine.push(api.createWeightAsync(150 + rnd.nextInt(5000) / 100.0, null).get());
+                        break;
+                    case UPDATE:
+                        api.updateWeightAsync(mine.peek(), 150 + rnd.nextInt(5000) / 100.0, null).get();
+                        break;
+                    case DELETE:
+                        api.deleteWeightAsync(mine.pop()).get();
+                        break;
+                }
+                latencies.get(op).add(System.nanoTime() - t0);
+            } catch (Exception e) {
+                errors.incrementAndGet();
+            }
+            done.incrementAndGet();
+        }
+    }
+
+    private void report(Map<Op, List<Long>> latencies, int ops, int errors, long elapsedNs) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        double seconds = elapsedNs / 1e9;
+        sb.append(String.format("Api load: %d users x %d ops, maxRequestsPerHost=%d, server %d ms, token rotates every %d ms%n",
+                USERS, OPS_PER_USER, MAX_PER_HOST, SERVER_MS, ROTATE_MS));
+        sb.append(String.format("  %d calls in %.2f s = %.1f calls/s, %d failed%n", ops, seconds, ops / seconds, errors));
+        sb.append(String.format("  %-7s %6s %8s %8s %8s %8s%n", "op", "n", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (Op op : Op.values()) {
+            List<Long> l = new ArrayList<>(latencies.get(op));
+            Collections.sort(l);
+            sb.append(String.format("  %-7s %6d %8.2f %8.2f %8.2f %8.2f%n", op, l.size(),
+                    pct(l, 0.50), pct(l, 0.90), pct(l, 0.99), pct(l, 1.0)));
+        }
+        sb.append(String.format("  http requests %d over %d connections (%d idle in pool at end)%n",
+                backend.requests.get(), backend.connections.get(), pool.idleConnectionCount()));
+        sb.append(String.format("  peak dispatcher: %d running, %d queued%n",
+                backend.peakRunning.get(), backend.peakQueued.get()));
+        sb.append(String.format("  401s %d, token refreshes %d%n", backend.unauthorized.get(), tokens.refreshes.get()));
+        sb.append("  single-flight saved: ").append(api.dedupStats()).append('\n');
+        sb.append(api.timings().dump()).append('\n');
+
+        System.out.print(sb);
+        File dir = new File("build/reports/load");
+        if (dir.isDirectory() || dir.mkdirs()) {
+            try (Writer w = new FileWriter(new File(dir, "api-load.txt"))) {
+                w.write(sb.toString());
+            }
+        }
+    }
+
+    private static double pct(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) return Double.NaN;
+        int i = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, i)) / 1e6;
+    }
+
+    // -------------------------
+    // Stand-in backend
+    // -------------------------
+
+    /// Same routes and JSON shapes as RESTapi/api (weights CRUD + goal), in memory, one user
+    static final class StandIn extends okhttp3.mockwebserver.Dispatcher {
+        private final Dispatcher client;   // sampled for peak running/queued calls
+        private final ConcurrentNavigableMap<Long, String[]> rows = new ConcurrentSkipListMap<>(); // id -> {value, at}
+        private final AtomicLong nextId = new AtomicLong(1);
+
+        // guarded by this
+        private String validToken = "tok-0";
+        private String previousToken = "";
+        private long rotatedAt = System.nanoTime();
+        private int tokenGeneration = 0;
+
+        final AtomicInteger requests = new AtomicInteger();
+        final AtomicInteger connections = new AtomicInteger();
+        final AtomicInteger unauthorized = new AtomicInteger();
+        final AtomicInteger peakRunning = new AtomicInteger();
+        final AtomicInteger peakQueued = new AtomicInteger();
+
+        StandIn(Dispatcher client) {
+            this.client = client;
+        }
+
+        /// What the token endpoint hands out right now
+        synchronized String issue() {
+            if (System.nanoTime() - rotatedAt > TimeUnit.MILLISECONDS.toNanos(ROTATE_MS)) {
+                previousToken = validToken;
+                validToken = "tok-" + (++tokenGeneration);
+                rotatedAt = System.nanoTime();
+            }
+            return validToken;
+        }
+
+        synchronized boolean accepts(@Nullable String authorization) {
+            String current = issue();
+            return ("Bearer " + current).equals(authorization)
+                    || ("Bearer " + previousToken).equals(authorization);
+        }
+
+        @NonNull
+        @Override
+        public MockResponse dispatch(@NonNull RecordedRequest req) {
+            requests.incrementAndGet();
+            if (req.getSequenceNumber() == 0) connections.incrementAndGet();
+            peakRunning.accumulateAndGet(client.runningCallsCount(), Math::max);
+            peakQueued.accumulateAndGet(client.queuedCallsCount(), Math::max);
+
+            if (!accepts(req.getHeader("Authorization"))) {
+                unauthorized.incrementAndGet();
+                return json(401, "{\"error\":\"invalid_token\"}");
+            }
+
+            String path = req.getRequestUrl().encodedPath();
+            String method = req.getMethod();
+            try {
+                if (path.equals("/weights") && "GET".equals(method)) {
+                    return list(Integer.parseInt(req.getRequestUrl().queryParameter("limit")),
+                            Integer.parseInt(req.getRequestUrl().queryParameter("offset")));
+                }
+                if (path.equals("/weights") && "POST".equals(method)) {
+                    JSONObject body = new JSONObject(req.getBody().readUtf8());
+                    long id = nextId.getAndIncrement();
+                    rows.put(id, new String[]{String.valueOf(body.getDouble("value")),
+                            body.optString("recorded_at", Instant.now().toString())});
+                    return json(201, "{\"id\":" + id + "}");
+                }
+                if (path.startsWith("/weights/")) {
+                    long id = Long.parseLong(path.substring("/weights/".length()));
+                    if ("DELETE".equals(method)) {
+                        return json(200, "{\"deleted\":" + (rows.remove(id) != null ? 1 : 0) + "}");
+                    }
+                    if ("PUT".equals(method)) {
+                        JSONObject body = new JSONObject(req.getBody().readUtf8());
+                        String value = body.has("value") ? String.valueOf(body.getDouble("value")) : null;
+                        String at = body.optString("recorded_at", null);
+                        String[] updated = rows.computeIfPresent(id, (k, old) -> new String[]{
+                                value != null ? value : old[0], at != null ? at : old[1]});
+                        return json(200, "{\"updated\":" + (updated != null ? 1 : 0) + "}");
+                    }
+                }
+                if (path.equals("/goal") && "GET".equals(method)) return json(200, "{\"goal\":null}");
+                return json(404, "{\"error\":\"not_found\"}");
+            } catch (Exception e) {
+                return json(400, "{\"error\":\"bad_request\"}");
+            }
+        }
+
+        /// Newest first (ids only grow, so id order is creation order here)
+        private MockResponse list(int limit, int offset) {
+            StringBuilder sb = new StringBuilder("{\"items\":[");
+            int skipped = 0, n = 0;
+            for (Map.Entry<Long, String[]> e : rows.descendingMap().entrySet()) {
+                if (skipped++ < offset) continue;
+                if (n++ == limit) break;
+                if (n > 1) sb.append(',');
+                sb.append("{\"id\":").append(e.getKey())
+                        .append(",\"value\":").append(e.getValue()[0])
+                        .append(",\"recorded_at\":\"").append(e.getValue()[1]).append("\"}");
+            }
+            return json(200, sb.append("]}").toString());
+        }
+
+        private static MockResponse json(int code, String body) {
+            return new MockResponse()
+                    .setResponseCode(code)
+                    .setHeader("Content-Type", "application/json; charset=utf-8")
+                    .setHeadersDelay(SERVER_MS, TimeUnit.MILLISECONDS)
+                    .setBody(body);
+        }
+    }
+
+    /// TokenManager's contract without AppAuth/keystore: single-flight refresh against the
+    /// stand-in's token endpoint, counted
+    static final class FakeTokens implements TokenSource {
+        private final StandIn backend;
+        private volatile @Nullable TokenManager.Token token;
+        private @Nullable CompletableFuture<TokenManager.Token> refreshing;   // guarded by this
+        final AtomicInteger refreshes = new AtomicInteger();
+
+        FakeTokens(StandIn backend) {
+            this.backend = backend;
+        }
+
+        @Override public @Nullable TokenManager.Token get() {
+            TokenManager.Token t = token;
+            return t != null ? t : refresh();
+        }
+
+        @Override public @Nullable TokenManager.Token afterUnauthorized(@Nullable String rejected) {
+            TokenManager.Token t = token;
+            if (t != null && !t.accessToken.equals(rejected)) return t;
+            return refresh();
+        }
+
+        private TokenManager.Token refresh() {
+            CompletableFuture<TokenManager.Token> f;
+            boolean mine;
+            synchronized (this) {
+                mine = refreshing == null;
+                if (mine) refreshing = new CompletableFuture<>();
+                f = refreshing;
+            }
+            if (mine) {
+                refreshes.incrementAndGet();
+                try {
+                    Thread.sleep(REFRESH_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                TokenManager.Token t = new TokenManager.Token(backend.issue(), Long.MAX_VALUE, 0);
+                token = t;
+                synchronized (this) {
+                    refreshing = null;
+                }
+                f.complete(t);
+            }
+            return f.join();
+        }
+    }
+}
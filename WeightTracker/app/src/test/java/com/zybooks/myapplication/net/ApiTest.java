@@ -0,0 +1,228 @@
+package com.zybooks.myapplication.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.Nullable;
+
+import com.zybooks.myapplication.models.WeightRecord;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * ApiTest
+ * - The real Api client against a local MockWebServer, one behaviour per test
+ * - Single-flight GETs: identical requests in flight share one network call; different
+ *   pages don't; a cancelled waiter leaves without disturbing the others; the shared list
+ *   is read-only
+ * - Retry + breaker: one breaker outcome per logical call, not per attempt; a retried DELETE
+ *   that finds nothing to delete succeeds (an earlier attempt already did it)
+ * - Byte metering: a Meter counts the calls it was passed to and no others
+ */
+public class ApiTest {
+    private static final String PAGE =
+            "{\"items\":[{\"id\":7,\"value\":150.25,\"recorded_at\":\"2025-01-31T08:00:00.000Z\"}]}";
+
+    private MockWebServer server;
+    private Api api;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        String base = server.url("/").toString();
+        api = new Api(null, base.substring(0, base.length() - 1), new FixedToken(), new OkHttpClient.Builder());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    // -------------------------
+    // Single-flight GETs
+    // -------------------------
+
+    @Test
+    public void identicalGetsInFlightShareOneCall() throws Exception {
+        CountDownLatch release = hold();
+        List<CompletableFuture<List<WeightRecord>>> calls = new ArrayList<>();
+        for (int i = 0; i < 5; i++) calls.add(api.listWeightsAsync(100, 0));
+        release.countDown();
+
+        List<WeightRecord> expected = Arrays.asList(new WeightRecord(7, 15_025, 1_738_310_400_000L));
+        for (CompletableFuture<List<WeightRecord>> f : calls) assertEquals(expected, f.get(5, TimeUnit.SECONDS));
+        assertEquals(1, server.getRequestCount());
+        assertEquals(Long.valueOf(4), api.dedupStats().get("/weights"));
+    }
+
+    @Test
+    public void differentPagesAreSeparateCalls() throws Exception {
+        CountDownLatch release = hold();
+        CompletableFuture<List<WeightRecord>> first = api.listWeightsAsync(100, 0);
+        CompletableFuture<List<WeightRecord>> second = api.listWeightsAsync(100, 100);
+        release.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void finishedGetIsNotReused() throws Exception {
+        hold().countDown();
+        api.listWeightsAsync(100, 0).get(5, TimeUnit.SECONDS);
+        api.listWeightsAsync(100, 0).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void cancelledWaiterLeavesTheOthersServed() throws Exception {
+        CountDownLatch release = hold();
+        CompletableFuture<List<WeightRecord>> leaving = api.listWeightsAsync(100, 0);
+        CompletableFuture<List<WeightRecord>> staying = api.listWeightsAsync(100, 0);
+
+        leaving.cancel(true);
+        release.countDown();
+
+        assertEquals(1, staying.get(5, TimeUnit.SECONDS).size());
+        assertTrue(leaving.isCancelled());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void sharedPageIsReadOnly() throws Exception {
+        CountDownLatch release = hold();
+        CompletableFuture<List<WeightRecord>> first = api.listWeightsAsync(100, 0);
+        CompletableFuture<List<WeightRecord>> second = api.listWeightsAsync(100, 0);
+        release.countDown();
+
+        List<WeightRecord> page = first.get(5, TimeUnit.SECONDS);
+        assertThrows(UnsupportedOperationException.class, page::clear);
+        assertEquals(1, second.get(5, TimeUnit.SECONDS).size());
+    }
+
+    // -------------------------
+    // Retry + circuit breaker
+    // -------------------------
+
+    @Test
+    public void breakerCountsOneFailurePerLogicalCall() throws Exception {
+        for (int i = 0; i < 9; i++) server.enqueue(json(503, "{}"));
+
+        // Three GETs, three attempts each: 3 breaker failures, below the threshold of 5
+        for (int i = 0; i < 3; i++) assertEquals(503, failureCode(api.healthAsync()));
+
+        assertEquals(9, server.getRequestCount());
+    }
+
+    @Test
+    public void breakerOpensAfterThresholdFailedCallsAndFailsFast() throws Exception {
+        for (int i = 0; i < 5; i++) server.enqueue(json(503, "{}"));
+
+        // POSTs aren't retried: one attempt per call
+        for (int i = 0; i < 5; i++) assertEquals(503, failureCode(api.createWeightAsync(150, null)));
+
+        assertEquals(0, failureCode(api.createWeightAsync(150, null)));
+        assertEquals(5, server.getRequestCount());
+    }
+
+    @Test
+    public void retriedDeleteOfMissingRowCountsAsDeleted() throws Exception {
+        server.enqueue(json(503, "{}"));
+        server.enqueue(json(404, "{\"ok\":false}"));
+
+        assertTrue(api.deleteWeightAsync(7).get(5, TimeUnit.SECONDS));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void retriedDeleteThatDeletedNothingCountsAsDeleted() throws Exception {
+        server.enqueue(json(503, "{}"));
+        server.enqueue(json(200, "{\"ok\":true,\"deleted\":0}"));
+
+        assertTrue(api.deleteGoalAsync().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void firstAttemptDeleteKeepsTheServersAnswer() throws Exception {
+        server.enqueue(json(200, "{\"ok\":true,\"deleted\":0}"));
+        server.enqueue(json(404, "{\"ok\":false}"));
+
+        assertFalse(api.deleteGoalAsync().get(5, TimeUnit.SECONDS));
+        assertEquals(404, failureCode(api.deleteWeightAsync(7)));
+    }
+
+    // -------------------------
+    // Byte metering
+    // -------------------------
+
+    @Test
+    public void meterCountsOnlyItsOwnCalls() throws Exception {
+        hold().countDown();
+        NetTimings.Meter meter = new NetTimings.Meter();
+        api.listWeightsAsync(100, 0, meter).get(5, TimeUnit.SECONDS);
+        api.listWeightsAsync(100, 100).get(5, TimeUnit.SECONDS);
+
+        assertEquals(PAGE.length(), meter.bytesReceived());
+        assertEquals(2 * PAGE.length(), api.timings().bytesReceived());
+    }
+
+    // -------------------------
+    // Helpers
+    // -------------------------
+
+    /// Status code a failed future reports (0: network error or breaker open)
+    private static int failureCode(CompletableFuture<?> f) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> f.get(5, TimeUnit.SECONDS));
+        return ((ApiException) e.getCause()).getCode();
+    }
+
+    /// Serve PAGE for every request, each held until the returned latch is released
+    private CountDownLatch hold() {
+        CountDownLatch release = new CountDownLatch(1);
+        server.setDispatcher(new Dispatcher() {
+            @Override public MockResponse dispatch(RecordedRequest r) throws InterruptedException {
+                release.await(5, TimeUnit.SECONDS);
+                return json(200, PAGE);
+            }
+        });
+        return release;
+    }
+
+    private static MockResponse json(int code, String body) {
+        return new MockResponse()
+                .setResponseCode(code)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body);
+    }
+
+    /// Always the same never-expiring token; auth isn't under test here
+    static final class FixedToken implements TokenSource {
+        private final TokenManager.Token token = new TokenManager.Token("test", Long.MAX_VALUE, 0);
+
+        @Override public @Nullable TokenManager.Token get() { return token; }
+
+        @Override public @Nullable TokenManager.Token afterUnauthorized(@Nullable String rejected) { return null; }
+    }
+}
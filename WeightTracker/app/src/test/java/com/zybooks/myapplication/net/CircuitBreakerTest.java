@@ -0,0 +1,103 @@
+package com.zybooks.myapplication.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * CircuitBreakerTest
+ * - CLOSED -> OPEN at the failure threshold, fail-fast during the cool-down
+ * - OPEN -> HALF_OPEN after the cool-down with a single probe; the probe's outcome closes or re-opens it
+ * - Driven by a fake nanosecond clock
+ */
+public class CircuitBreakerTest {
+    private static final long COOL_DOWN_MS = 15_000;
+
+    private long now = 1_000_000_000L;
+    private final CircuitBreaker breaker = new CircuitBreaker(3, COOL_DOWN_MS, () -> now);
+
+    @Test
+    public void staysClosedBelowThresholdAndSuccessResetsTheCount() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void opensAtThresholdAndFailsFastUntilTheCoolDownEnds() {
+        open();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.allowRequest());
+        advanceMs(COOL_DOWN_MS - 1);
+        assertFalse(breaker.allowRequest());
+        assertTrue(breaker.isOpen());
+    }
+
+    @Test
+    public void halfOpenLetsExactlyOneProbeThrough() {
+        open();
+        advanceMs(COOL_DOWN_MS);
+
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void successfulProbeCloses() {
+        open();
+        advanceMs(COOL_DOWN_MS);
+        assertTrue(breaker.allowRequest());
+
+        breaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.allowRequest());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void failedProbeReopensForAnotherCoolDown() {
+        open();
+        advanceMs(COOL_DOWN_MS);
+        assertTrue(breaker.allowRequest());
+
+        breaker.onFailure();   // a single failure is enough in HALF_OPEN
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        advanceMs(COOL_DOWN_MS - 1);
+        assertFalse(breaker.allowRequest());
+        advanceMs(1);
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+    }
+
+    @Test
+    public void unreportedProbeExpiresAfterOneCoolDown() {
+        open();
+        advanceMs(COOL_DOWN_MS);
+        assertTrue(breaker.allowRequest());   // probe cancelled: never reports back
+
+        advanceMs(COOL_DOWN_MS - 1);
+        assertFalse(breaker.allowRequest());
+        advanceMs(1);
+        assertTrue(breaker.allowRequest());
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) breaker.onFailure();
+    }
+
+    private void advanceMs(long ms) {
+        now += ms * 1_000_000L;
+    }
+}
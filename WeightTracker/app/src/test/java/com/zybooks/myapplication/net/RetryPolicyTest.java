@@ -0,0 +1,65 @@
+package com.zybooks.myapplication.net;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * RetryPolicyTest
+ * - Which attempts are retried (idempotency, status codes, attempt cap)
+ * - Backoff delays stay inside the jittered, capped exponential ceiling
+ */
+public class RetryPolicyTest {
+    private static final int SAMPLES = 2_000;
+
+    @Test
+    public void retriesTransientFailuresUpToMaxAttempts() {
+        RetryPolicy p = new RetryPolicy(3, 250, 4000);
+        for (int code : new int[]{0, 408, 429, 500, 503}) {
+            assertTrue("code " + code, p.shouldRetry(true, 1, code));
+            assertTrue("code " + code, p.shouldRetry(true, 2, code));
+            assertFalse("code " + code, p.shouldRetry(true, 3, code));
+        }
+    }
+
+    @Test
+    public void neverRetriesClientErrorsOrNonIdempotentCalls() {
+        RetryPolicy p = RetryPolicy.defaults();
+        for (int code : new int[]{200, 400, 401, 403, 404, 409, 422}) {
+            assertFalse("code " + code, p.shouldRetry(true, 1, code));
+        }
+        assertFalse(p.shouldRetry(false, 1, 503));
+        assertFalse(p.shouldRetry(false, 1, 0));
+    }
+
+    @Test
+    public void delayIsFullJitterUnderTheCappedCeiling() {
+        RetryPolicy p = new RetryPolicy(10, 250, 4000);
+        for (int attempt = 1; attempt <= 8; attempt++) {
+            long ceiling = Math.min(4000, 250L << (attempt - 1));
+            long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+            for (int i = 0; i < SAMPLES; i++) {
+                long d = p.delayMs(attempt);
+                min = Math.min(min, d);
+                max = Math.max(max, d);
+            }
+            assertTrue("attempt " + attempt + " min " + min, min >= 0);
+            assertTrue("attempt " + attempt + " max " + max, max <= ceiling);
+            // Full jitter spans the whole range, not just the top of it
+            assertTrue("attempt " + attempt + " min " + min, min < ceiling / 4);
+            assertTrue("attempt " + attempt + " max " + max, max > ceiling * 3 / 4);
+        }
+    }
+
+    @Test
+    public void delayDoesNotOverflowForLateAttempts() {
+        RetryPolicy p = new RetryPolicy(100, 250, 4000);
+        for (int attempt : new int[]{17, 30, 64, 100}) {
+            for (int i = 0; i < SAMPLES; i++) {
+                long d = p.delayMs(attempt);
+                assertTrue("attempt " + attempt + " delay " + d, d >= 0 && d <= 4000);
+            }
+        }
+    }
+}
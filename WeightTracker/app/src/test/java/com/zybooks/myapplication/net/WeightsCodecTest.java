@@ -0,0 +1,92 @@
+package com.zybooks.myapplication.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.zybooks.myapplication.models.WeightRecord;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * WeightsCodecTest
+ * - Decodes bytes produced by the server's encoder (RESTapi/api/src/wire.js), so a change on
+ *   either side that breaks the format fails here
+ * - Covers one/two-byte varint boundaries, negative and zero deltas, values past 32 bits,
+ *   an empty page, and truncated or malformed input
+ */
+public class WeightsCodecTest {
+    /// encodeWeights(FIXTURE_ROWS) from wire.js, as hex:
+    ///   node --input-type=module -e 'import { encodeWeights } from "./src/wire.js";
+    ///     console.log(encodeWeights([...]).toString("hex"))'   (run in RESTapi/api)
+    ///   { id: 1000, value: "80.00", recorded_at: "2025-01-31T08:00:00Z" }  first row vs 0
+    ///   { id: 936,  value: "80.00", recorded_at: "2025-01-31T08:00:00Z" }  Δid -64 (1 byte), Δtime/Δvalue 0
+    ///   { id: 871,  value: "80.64", recorded_at: "2025-01-31T07:58:56Z" }  Δid -65 (2 bytes), Δtime -64, Δvalue +64 (2 bytes)
+    ///   { id: 870,  value: "80.01", recorded_at: "2025-01-30T07:58:56Z" }  Δid -1, Δtime -1 day, Δvalue -63
+    ///   { id: 5000000000, value: "0.00", recorded_at: "1970-01-01T00:00:00Z" }  Δid and Δtime past 32 bits
+    private static final String FIXTURE =
+            "0105d00f808ce4f90c807d7f000081017f800101ffc50a7db4baafa025ffc4d9f90c817d";
+
+    /// encodeWeights([]) from wire.js
+    private static final String EMPTY = "0100";
+
+    private static final long T = 1_738_310_400_000L;   // 2025-01-31T08:00:00Z
+
+    @Test
+    public void decodesServerFixture() throws IOException {
+        List<WeightRecord> expected = Arrays.asList(
+                new WeightRecord(1000, 8000, T),
+                new WeightRecord(936, 8000, T),
+                new WeightRecord(871, 8064, T - 64_000),
+                new WeightRecord(870, 8001, T - 64_000 - 86_400_000),
+                new WeightRecord(5_000_000_000L, 0, 0));
+
+        assertEquals(expected, WeightsCodec.decode(hex(FIXTURE)));
+    }
+
+    @Test
+    public void decodesEmptyPage() throws IOException {
+        assertTrue(WeightsCodec.decode(hex(EMPTY)).isEmpty());
+    }
+
+    @Test
+    public void rejectsEveryTruncation() {
+        byte[] full = hex(FIXTURE);
+        for (int len = 0; len < full.length; len++) {
+            byte[] cut = Arrays.copyOf(full, len);
+            assertThrows("prefix of " + len + " bytes", IOException.class, () -> WeightsCodec.decode(cut));
+        }
+    }
+
+    @Test
+    public void rejectsUnknownVersion() {
+        byte[] buf = hex(FIXTURE);
+        buf[0] = 2;
+        assertThrows(IOException.class, () -> WeightsCodec.decode(buf));
+    }
+
+    @Test
+    public void rejectsOverlongVarint() {
+        // Ten continuation bytes: more than 64 bits of payload
+        byte[] buf = hex("01ffffffffffffffffffff01");
+        assertThrows(IOException.class, () -> WeightsCodec.decode(buf));
+    }
+
+    @Test
+    public void rejectsCountLargerThanBody() {
+        // 127 rows claimed in a 2-byte body
+        assertThrows(IOException.class, () -> WeightsCodec.decode(hex("017f")));
+    }
+
+    private static byte[] hex(String s) {
+        byte[] out = new byte[s.length() / 2];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = (byte) Integer.parseInt(s.substring(2 * i, 2 * i + 2), 16);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,72 @@
+#!/usr/bin/env bash
+# Time-to-first-data with and without the startup warm-up (Warmup / StartupTimer).
+#
+# Builds and installs the debug app twice (-Pwarmup=true, then -Pwarmup=false), cold-starts it
+# RUNS times each, and reads StartupTimer's "first data (...) at N ms" line from logcat.
+# Prints every run plus the median per variant.
+#
+# Needs: one device/emulator on adb, the API reachable from it, and a signed-in user
+# (signed out, the warm-up does nothing and the grid never loads). Don't clear app data
+# between variants: the cache is part of what's being measured.
+#
+#   scripts/startup-compare.sh          # 10 runs per variant
+#   RUNS=20 scripts/startup-compare.sh
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+PKG=com.zybooks.myapplication
+ACTIVITY=$PKG/.MainActivity
+RUNS=${RUNS:-10}
+TIMEOUT_S=20
+
+# One cold start; echoes "<ms> <source>" or fails if first data never showed up
+cold_start() {
+    adb shell am force-stop "$PKG"
+    adb logcat -c
+    adb shell am start -W -n "$ACTIVITY" > /dev/null
+    for _ in $(seq "$TIMEOUT_S"); do
+        line=$(adb logcat -d -s Startup:I | grep -m1 'first data' || true)
+        if [ -n "$line" ]; then
+            # "... first data (cache, warmup=true) at 812 ms"
+            ms=$(sed -E 's/.* at ([0-9]+) ms.*/\1/' <<< "$line")
+            src=$(sed -E 's/.*first data \(([a-z]+),.*/\1/' <<< "$line")
+            echo "$ms $src"
+            return 0
+        fi
+        sleep 1
+    done
+    return 1
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+declare -A RESULT
+for warmup in true false; do
+    echo "== warmup=$warmup: building"
+    ./gradlew -q installDebug -Pwarmup="$warmup"
+    cold_start > /dev/null || true   # first launch after install pays for dexopt; not counted
+    times=()
+    for i in $(seq "$RUNS"); do
+        if r=$(cold_start); then
+            echo "  run $i: ${r% *} ms (${r#* })"
+            times+=("${r% *}")
+        else
+            echo "  run $i: no first data within ${TIMEOUT_S}s"
+        fi
+    done
+    if [ "${#times[@]}" -gt 0 ]; then
+        RESULT[$warmup]=$(printf '%s\n' "${times[@]}" | median)
+    else
+        RESULT[$warmup]="n/a"
+    fi
+done
+
+echo
+echo "time-to-first-data, median of $RUNS cold starts"
+echo "  warmup on:  ${RESULT[true]} ms"
+echo "  warmup off: ${RESULT[false]} ms"
+
+# Leave the normal build installed
+./gradlew -q installDebug -Pwarmup=true